@@ -0,0 +1,45 @@
+package com.boardcamp.api.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class DatabaseAdmissionConfig {
+
+    // Static so the post-processor does not force this configuration to be created early
+    @Bean
+    public static BeanPostProcessor databaseAdmissionPostProcessor(
+            @Value("${boardcamp.db.admission.max-queued}") int maxQueued,
+            @Value("${boardcamp.db.admission.timeout}") Duration timeout) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The pool may already be wrapped, e.g. by the statement-counting proxy
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource) {
+                    return bean;
+                }
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+                if (hikari == null) {
+                    return bean;
+                }
+
+                // Fills in Hikari's defaults, such as the pool size, before the pool itself starts
+                hikari.validate();
+                return new AdmissionControlledDataSource(dataSource, hikari.getMaximumPoolSize(), maxQueued, timeout);
+            }
+        };
+    }
+
+}
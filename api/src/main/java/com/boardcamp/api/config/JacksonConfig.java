@@ -0,0 +1,19 @@
+package com.boardcamp.api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+@Configuration
+public class JacksonConfig {
+
+    // Spring Boot registers every Module bean on its ObjectMapper. Blackbird replaces reflective accessor calls
+    // with generated lambdas, which matters for the large rental listings and the NDJSON export
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.boardcamp.api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "boardcamp.service";
+    public static final String EXCEPTION_COUNTER = "boardcamp.exceptions";
+
+    // Backs the class-level @Timed on the services
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Both gauges run a query on every scrape; active rentals is an index-only count on rents_open_idx
+    @Bean
+    public MeterBinder stockMetrics(GameRepository gameRepository, RentRepository rentRepository) {
+        return registry -> {
+            Gauge.builder("boardcamp.games.stock", gameRepository, GameRepository::sumStock)
+                    .description("Copies of every game available to rent")
+                    .register(registry);
+            Gauge.builder("boardcamp.rentals.active", rentRepository, RentRepository::countByReturnDateIsNull)
+                    .description("Rentals that have not been returned")
+                    .register(registry);
+        };
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.boardcamp.api.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String GAMES_REGION = "games";
+    public static final String GAME_SUMMARIES_REGION = "game-summaries";
+    public static final String CUSTOMERS_REGION = "customers";
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            @Value("${boardcamp.cache.maximum-size}") long maximumSize,
+            @Value("${boardcamp.cache.time-to-live}") Duration timeToLive) {
+
+        // The JCache manager is shared by the whole JVM, so each context gets its own region prefix
+        String prefix = "boardcamp-" + UUID.randomUUID();
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        for (String region : List.of(GAMES_REGION, GAME_SUMMARIES_REGION, CUSTOMERS_REGION)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+            configuration.setStatisticsEnabled(true);
+
+            cacheManager.createCache(prefix + "." + region, configuration);
+        }
+
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(AvailableSettings.CACHE_REGION_PREFIX, prefix);
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        };
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.boardcamp.api.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+// Tallies the statements each request runs on its own thread (work handed to async executors is not
+// included) and warns when a request goes over boardcamp.sql.statement-budget, which is how per-row
+// selects show up.
+@Component
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    public record RequestStatements(String method, String route, long statements, long jdbcTimeMs) {
+    }
+
+    private final int budget;
+    private final MeterRegistry meterRegistry;
+    private final List<Consumer<RequestStatements>> listeners = new CopyOnWriteArrayList<>();
+
+    public SqlStatementBudgetFilter(@Value("${boardcamp.sql.statement-budget}") int budget,
+            MeterRegistry meterRegistry) {
+        this.budget = budget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void addListener(Consumer<RequestStatements> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<RequestStatements> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        QueryCountHolder.clear();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCount count = QueryCountHolder.get(SqlStatementConfig.DATA_SOURCE_NAME);
+            QueryCountHolder.clear();
+
+            RequestStatements statements = new RequestStatements(
+                    request.getMethod(),
+                    route(request, response),
+                    count != null ? count.getTotal() : 0,
+                    count != null ? count.getTime() : 0);
+            record(statements, request.getRequestURI());
+        }
+    }
+
+    // The route is a meter tag, so requests no controller matched share a fixed value instead of their raw URI,
+    // the same way http.server.requests tags them. Misses fall through to the static resource handler's /**
+    private static String route(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        HttpStatus status = HttpStatus.resolve(response.getStatus());
+        if (pattern != null && !(handler instanceof ResourceHttpRequestHandler && status == HttpStatus.NOT_FOUND)) {
+            return pattern.toString();
+        }
+        if (status == HttpStatus.NOT_FOUND) {
+            return "NOT_FOUND";
+        }
+        if (status != null && status.is3xxRedirection()) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+
+    private void record(RequestStatements statements, String uri) {
+        DistributionSummary.builder("boardcamp.http.sql.statements")
+                .description("Statements run by one HTTP request")
+                .tag("method", statements.method())
+                .tag("route", statements.route())
+                .register(meterRegistry)
+                .record(statements.statements());
+
+        if (statements.statements() > budget) {
+            log.atWarn()
+                    .addKeyValue("method", statements.method())
+                    .addKeyValue("route", statements.route())
+                    .addKeyValue("uri", uri)
+                    .addKeyValue("statements", statements.statements())
+                    .addKeyValue("budget", budget)
+                    .addKeyValue("jdbcTimeMs", statements.jdbcTimeMs())
+                    .log("SQL statement budget exceeded: {} {} ran {} statements (budget {}) in {} ms",
+                            statements.method(), uri, statements.statements(), budget,
+                            statements.jdbcTimeMs());
+        }
+
+        listeners.forEach(listener -> listener.accept(statements));
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.boardcamp.api.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+@Configuration
+public class SqlStatementConfig {
+
+    public static final String DATA_SOURCE_NAME = "boardcamp";
+    public static final String SQL_LOGGER = "boardcamp.sql";
+
+    // Counts statements and JDBC time per thread for SqlStatementBudgetFilter. Statements are logged at DEBUG
+    // on the boardcamp.sql logger instead of spring.jpa.show-sql.
+    @Bean
+    public static BeanPostProcessor sqlStatementProxyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(DATA_SOURCE_NAME)
+                            .countQuery()
+                            .logQueryBySlf4j(SLF4JLogLevel.DEBUG, SQL_LOGGER)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+}
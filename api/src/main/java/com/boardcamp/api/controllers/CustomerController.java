@@ -2,12 +2,19 @@ package com.boardcamp.api.controllers;
 
 import org.springframework.web.bind.annotation.RestController;
 
+import com.boardcamp.api.dtos.CursorPageDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
 import com.boardcamp.api.dtos.CustomerDTO;
+import com.boardcamp.api.dtos.CustomerResponseDTO;
 import com.boardcamp.api.models.CustomerModel;
 import com.boardcamp.api.services.CustomerService;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
@@ -17,6 +24,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 
 @RestController
@@ -31,34 +39,49 @@ public class CustomerController {
 
 
    
+    // With cpf (exact) or name (case-insensitive, anywhere in the name) returns up to limit matches instead of a page
     @GetMapping("")
-    public ResponseEntity<List<CustomerModel>> getCustomers() {
+    public ResponseEntity<List<CustomerResponseDTO>> getCustomers(
+            @RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "100") @Min(1) @Max(1000) int limit,
+            @RequestParam(name = "cpf", required = false) String cpf,
+            @RequestParam(name = "name", required = false) @Size(min = 1, max = 150) String name) {
 
-        List<CustomerModel> customers = customerService.getCustomers();
+        if (cpf != null || name != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(customerService.searchCustomers(cpf, name, limit));
+        }
 
-       return ResponseEntity.status(HttpStatus.OK).body(customers);
+        CursorPageDTO<CustomerResponseDTO> customers = customerService.getCustomers(after, limit);
+
+       return ResponseEntity.status(HttpStatus.OK).headers(customers.headers()).body(customers.items());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerModel> getCustomerById(@PathVariable("id") Long id ){
+    public ResponseEntity<CustomerResponseDTO> getCustomerById(@PathVariable("id") Long id ){
 
         CustomerModel customer = customerService.getById(id);
 
-        return ResponseEntity.status(HttpStatus.OK).body(customer);
+        return ResponseEntity.status(HttpStatus.OK).body(CustomerResponseDTO.of(customer));
     }
     
 
     @PostMapping("")
-    public ResponseEntity<CustomerModel> createCustomer(@RequestBody @Valid CustomerDTO body) {
+    public ResponseEntity<CustomerResponseDTO> createCustomer(@RequestBody @Valid CustomerDTO body) {
 
 
 
         CustomerModel customer = customerService.createCustomer(body);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(customer);
+        return ResponseEntity.status(HttpStatus.CREATED).body(CustomerResponseDTO.of(customer));
     }
 
-    
+    // Streams a CSV upload with a header row; invalid or duplicate rows are skipped and listed in the report
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDTO> importCustomers(InputStream body) {
 
+        ImportReportDTO report = customerService.importCustomers(body);
+
+        return ResponseEntity.status(HttpStatus.OK).body(report);
+    }
 
 }
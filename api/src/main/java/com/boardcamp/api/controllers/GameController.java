@@ -3,20 +3,36 @@ package com.boardcamp.api.controllers;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.boardcamp.api.dtos.CursorPageDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
 import com.boardcamp.api.dtos.GameDTO;
+import com.boardcamp.api.dtos.GameResponseDTO;
+import com.boardcamp.api.dtos.GameSuggestionDTO;
 import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.services.GameCatalogCache;
+import com.boardcamp.api.services.GameCatalogCache.EncodedPage;
 import com.boardcamp.api.services.GameService;
 
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 
+
+import org.springframework.http.HttpHeaders;
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.ETag;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 
 
@@ -26,27 +42,74 @@ import org.springframework.web.bind.annotation.RequestBody;
 public class GameController {
     
     private final GameService gameService;
+    private final GameCatalogCache gameCatalogCache;
 
-    public GameController(GameService gameService){
+    public GameController(GameService gameService, GameCatalogCache gameCatalogCache){
         this.gameService = gameService;
+        this.gameCatalogCache = gameCatalogCache;
     }
 
     @GetMapping("")
-    public ResponseEntity<List<GameModel>> getGames() {
+    public ResponseEntity<byte[]> getGames(
+            @RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "100") @Min(1) @Max(1000) int limit,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding) {
+
+        EncodedPage games = gameCatalogCache.getPage(after, limit, () -> gameService.getGames(after, limit));
+
+        if (ifNoneMatch != null && matchesAny(ifNoneMatch, games.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(games.etag()).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(games.etag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (games.nextCursor() != null) {
+            response.header(CursorPageDTO.NEXT_CURSOR_HEADER, games.nextCursor().toString());
+        }
+
+        if (acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(games.gzip());
+        }
+
+        return response.body(games.json());
+    }
+
+    // If-None-Match is compared the RFC 9110 way: weakly, so the W/ tags compressing proxies hand out still match,
+    // against every tag of a list, with * matching any page
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    // Served from memory by GameNameIndex; up to limit names starting with, then containing, q
+    @GetMapping("/suggest")
+    public ResponseEntity<List<GameSuggestionDTO>> suggestGames(
+            @RequestParam(name = "q") @Size(min = 1, max = 150) String query,
+            @RequestParam(name = "limit", defaultValue = "10") @Min(1) @Max(50) int limit) {
 
-        List<GameModel> games = gameService.getGames();
+        List<GameSuggestionDTO> games = gameService.suggestGames(query, limit);
 
         return ResponseEntity.status(HttpStatus.OK).body(games);
     }
 
     @PostMapping("")
-    public ResponseEntity<GameModel> createGame(@RequestBody @Valid GameDTO body) {
+    public ResponseEntity<GameResponseDTO> createGame(@RequestBody @Valid GameDTO body) {
 
         GameModel game = gameService.createGame(body);
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(game);
+        return ResponseEntity.status(HttpStatus.CREATED).body(GameResponseDTO.of(game));
+    }
+
+    // Streams a CSV upload with a header row; invalid or duplicate rows are skipped and listed in the report
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDTO> importGames(InputStream body) {
+
+        ImportReportDTO report = gameService.importGames(body);
+
+        return ResponseEntity.status(HttpStatus.OK).body(report);
     }
-    
-    
 
 }
@@ -1,22 +1,40 @@
 package com.boardcamp.api.controllers;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
+import com.boardcamp.api.dtos.CursorPageDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.dtos.OverdueRentDTO;
+import com.boardcamp.api.dtos.RentCartDTO;
 import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.dtos.RentFilterDTO;
+import com.boardcamp.api.dtos.RentResponseDTO;
+import com.boardcamp.api.dtos.RentReturnDTO;
+import com.boardcamp.api.dtos.RentReturnResultDTO;
 import com.boardcamp.api.models.RentModel;
+import com.boardcamp.api.services.RentBackfillService;
 import com.boardcamp.api.services.RentService;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.web.bind.annotation.GetMapping;
 
 
@@ -26,35 +44,94 @@ import org.springframework.web.bind.annotation.GetMapping;
 public class RentController {
     
     final RentService rentService;
+    final RentBackfillService rentBackfillService;
 
-    public RentController(RentService rentService){
+    public RentController(RentService rentService, RentBackfillService rentBackfillService){
         this.rentService = rentService;
+        this.rentBackfillService = rentBackfillService;
     }
 
 
     @GetMapping("")
-    public ResponseEntity<List<RentModel>> getRents(){
+    public ResponseEntity<List<RentResponseDTO>> getRents(
+            @Valid RentFilterDTO filter,
+            @RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "100") @Min(1) @Max(1000) int limit) {
 
-        List<RentModel> rents = rentService.getAllRents();
+        CursorPageDTO<RentResponseDTO> rents = rentService.getRents(filter, after, limit);
 
-        return ResponseEntity.status(HttpStatus.OK).body(rents);
+        return ResponseEntity.status(HttpStatus.OK).headers(rents.headers()).body(rents.items());
         
     }
 
+    @GetMapping("/overdue")
+    public ResponseEntity<List<OverdueRentDTO>> getOverdueRents(
+            @RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "100") @Min(1) @Max(1000) int limit) {
+
+        CursorPageDTO<OverdueRentDTO> rents = rentService.getOverdueRents(after, limit);
+
+        return ResponseEntity.status(HttpStatus.OK).headers(rents.headers()).body(rents.items());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRents(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding) {
+
+        boolean gzip = acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = out -> rentService.exportRents(gzip ? new GZIPOutputStream(out, 8192) : out);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(body);
+    }
+
     @PostMapping("")
-    public ResponseEntity<RentModel> createRental(@RequestBody @Valid RentDTO body) {
+    public ResponseEntity<RentResponseDTO> createRental(@RequestBody @Valid RentDTO body) {
 
         RentModel rent = rentService.createRental(body);
 
-        return ResponseEntity.status(HttpStatus.OK).body(rent);
+        return ResponseEntity.status(HttpStatus.OK).body(RentResponseDTO.of(rent));
+
+    }
+
+    @PostMapping("/cart")
+    public ResponseEntity<List<RentResponseDTO>> createCart(@RequestBody @Valid RentCartDTO body) {
+
+        List<RentModel> rents = rentService.createCart(body);
+
+        return ResponseEntity.status(HttpStatus.OK).body(rents.stream().map(RentResponseDTO::of).toList());
+
+    }
+
+    // Streams historical, already returned rentals as NDJSON; invalid rows are skipped and listed in the report
+    @PostMapping(value = "/backfill", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReportDTO> backfillRents(InputStream body) {
+
+        ImportReportDTO report = rentBackfillService.backfillRents(body);
+
+        return ResponseEntity.status(HttpStatus.OK).body(report);
+    }
+
+    @PostMapping("/return")
+    public ResponseEntity<List<RentReturnResultDTO>> returnRentals(@RequestBody @Valid RentReturnDTO body) {
+
+        List<RentReturnResultDTO> results = rentService.returnRentals(body.getIds());
+        return ResponseEntity.status(HttpStatus.OK).body(results);
 
     }
 
     @PostMapping("/{id}/return")
-    public ResponseEntity<RentModel> closeRental(@PathVariable("id")  Long id) {
+    public ResponseEntity<RentResponseDTO> closeRental(@PathVariable("id")  Long id) {
 
         RentModel rent = rentService.closeRental(id);
-        return ResponseEntity.status(HttpStatus.OK).body(rent);
+        return ResponseEntity.status(HttpStatus.OK).body(RentResponseDTO.of(rent));
 
     }
 
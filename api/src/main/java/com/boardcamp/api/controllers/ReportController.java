@@ -0,0 +1,39 @@
+package com.boardcamp.api.controllers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.boardcamp.api.dtos.RevenueDTO;
+import com.boardcamp.api.services.ReportService;
+
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+
+    final ReportService reportService;
+
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    // One row per game and day with revenue in the range, both ends inclusive
+    @GetMapping("/revenue")
+    public ResponseEntity<List<RevenueDTO>> getRevenue(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "gameId", required = false) Long gameId) {
+
+        List<RevenueDTO> revenue = reportService.getRevenue(from, to, gameId);
+
+        return ResponseEntity.status(HttpStatus.OK).body(revenue);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.boardcamp.api.dtos;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+
+public record CursorPageDTO<T>(List<T> items, Long nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Expects up to limit + 1 rows ordered by id; the extra row only signals that another page exists
+    public static <T> CursorPageDTO<T> of(List<T> rows, int limit, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new CursorPageDTO<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, limit);
+        return new CursorPageDTO<>(items, id.apply(items.get(limit - 1)));
+    }
+
+    public HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(NEXT_CURSOR_HEADER, nextCursor.toString());
+        }
+        return headers;
+    }
+
+}
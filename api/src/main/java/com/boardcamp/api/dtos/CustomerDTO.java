@@ -10,6 +10,7 @@ import lombok.Data;
 public class CustomerDTO {
     
     @NotBlank
+    @Size(max = 150)
     private String name;
 
     @NotBlank
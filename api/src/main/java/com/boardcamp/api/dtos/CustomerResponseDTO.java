@@ -0,0 +1,11 @@
+package com.boardcamp.api.dtos;
+
+import com.boardcamp.api.models.CustomerModel;
+
+public record CustomerResponseDTO(Long id, String name, String phone, String cpf) {
+
+    public static CustomerResponseDTO of(CustomerModel customer) {
+        return new CustomerResponseDTO(customer.getId(), customer.getName(), customer.getPhone(), customer.getCpf());
+    }
+
+}
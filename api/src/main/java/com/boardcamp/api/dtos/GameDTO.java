@@ -1,15 +1,18 @@
 package com.boardcamp.api.dtos;
 
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class GameDTO {
 
 
@@ -18,6 +21,7 @@ public class GameDTO {
     private String name;
 
 
+    @Size(max = 300)
     private String image;
 
     @NotNull
@@ -28,5 +32,13 @@ public class GameDTO {
     @Min(value = 1, message = "O valor pricePerDay deve ser maior que zero")
     private int pricePerDay;
 
+    @Min(value = 2, message = "O valor stockSlots deve ser no mínimo 2")
+    @Max(value = 64, message = "O valor stockSlots deve ser no máximo 64")
+    private Integer stockSlots;
+
+
+    public GameDTO(String name, String image, int stockTotal, int pricePerDay) {
+        this(name, image, stockTotal, pricePerDay, null);
+    }
 
 }
@@ -0,0 +1,4 @@
+package com.boardcamp.api.dtos;
+
+public record GamePriceDTO(Long id, int pricePerDay) {
+}
@@ -0,0 +1,12 @@
+package com.boardcamp.api.dtos;
+
+import com.boardcamp.api.models.GameModel;
+
+public record GameResponseDTO(Long id, String name, String image, int stockTotal, int pricePerDay) {
+
+    public static GameResponseDTO of(GameModel game) {
+        return new GameResponseDTO(game.getId(), game.getName(), game.getImage(), game.getStockTotal(),
+                game.getPricePerDay());
+    }
+
+}
@@ -0,0 +1,4 @@
+package com.boardcamp.api.dtos;
+
+public record GameSuggestionDTO(Long id, String name) {
+}
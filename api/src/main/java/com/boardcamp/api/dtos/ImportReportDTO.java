@@ -0,0 +1,10 @@
+package com.boardcamp.api.dtos;
+
+import java.util.List;
+
+public record ImportReportDTO(long imported, long rejected, List<RowError> errors) {
+
+    public record RowError(long row, String message) {
+    }
+
+}
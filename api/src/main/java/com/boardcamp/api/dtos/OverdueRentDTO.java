@@ -0,0 +1,16 @@
+package com.boardcamp.api.dtos;
+
+import java.time.LocalDate;
+
+public record OverdueRentDTO(
+        Long id,
+        Long customerId,
+        String customerName,
+        String customerPhone,
+        Long gameId,
+        String gameName,
+        LocalDate rentDate,
+        LocalDate expectedReturnDate,
+        long daysLate,
+        long accruedFee) {
+}
@@ -0,0 +1,51 @@
+package com.boardcamp.api.dtos;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One historical rental; prices left out are computed from the game's current price per day
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RentBackfillDTO {
+
+    @NotNull
+    private Long customerId;
+
+    @NotNull
+    private Long gameId;
+
+    @NotNull
+    @PastOrPresent(message = "O valor rentDate não pode estar no futuro")
+    private LocalDate rentDate;
+
+    @NotNull
+    @Min(value = 1, message = "O valor daysRented deve ser maior que zero")
+    private Integer daysRented;
+
+    @NotNull
+    @PastOrPresent(message = "O valor returnDate não pode estar no futuro")
+    private LocalDate returnDate;
+
+    @Min(value = 0, message = "O valor originalPrice não pode ser negativo")
+    private Integer originalPrice;
+
+    @Min(value = 0, message = "O valor delayFee não pode ser negativo")
+    private Integer delayFee;
+
+    @JsonIgnore
+    @AssertTrue(message = "O valor returnDate não pode ser anterior a rentDate")
+    public boolean isReturnedAfterRent() {
+        return rentDate == null || returnDate == null || !returnDate.isBefore(rentDate);
+    }
+
+}
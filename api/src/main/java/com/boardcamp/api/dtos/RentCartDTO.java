@@ -0,0 +1,25 @@
+package com.boardcamp.api.dtos;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RentCartDTO {
+
+    @NotNull
+    private Long customerId;
+
+    @NotEmpty(message = "O carrinho não pode ser vazio")
+    @Size(max = 20, message = "O carrinho deve ter no máximo 20 itens")
+    private List<@NotNull @Valid RentCartItemDTO> items;
+
+}
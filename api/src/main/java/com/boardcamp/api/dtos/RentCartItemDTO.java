@@ -0,0 +1,21 @@
+package com.boardcamp.api.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RentCartItemDTO {
+
+    @NotNull
+    private Long gameId;
+
+    @NotNull
+    @Min(value = 1, message = "O valor daysRented deve ser maior que zero")
+    private Integer daysRented;
+
+}
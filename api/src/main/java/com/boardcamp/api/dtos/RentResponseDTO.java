@@ -0,0 +1,37 @@
+package com.boardcamp.api.dtos;
+
+import java.time.LocalDate;
+
+import com.boardcamp.api.models.RentModel;
+
+// A rental as returned by the API; customer and game are reduced to what a rental listing shows
+public record RentResponseDTO(
+        Long id,
+        LocalDate rentDate,
+        int daysRented,
+        LocalDate returnDate,
+        int originalPrice,
+        int delayFee,
+        Customer customer,
+        Game game) {
+
+    public record Customer(Long id, String name) {
+    }
+
+    public record Game(Long id, String name) {
+    }
+
+    // Flat form for constructor expressions in queries, which cannot nest
+    public RentResponseDTO(Long id, LocalDate rentDate, int daysRented, LocalDate returnDate, int originalPrice,
+            int delayFee, Long customerId, String customerName, Long gameId, String gameName) {
+        this(id, rentDate, daysRented, returnDate, originalPrice, delayFee,
+                new Customer(customerId, customerName), new Game(gameId, gameName));
+    }
+
+    public static RentResponseDTO of(RentModel rent) {
+        return new RentResponseDTO(rent.getId(), rent.getRentDate(), rent.getDaysRented(), rent.getReturnDate(),
+                rent.getOriginalPrice(), rent.getDelayFee(), rent.getCustomer().getId(), rent.getCustomer().getName(),
+                rent.getGame().getId(), rent.getGame().getName());
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.boardcamp.api.dtos;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RentReturnDTO {
+
+    @NotEmpty(message = "A lista ids não pode ser vazia")
+    @Size(max = 1000, message = "A lista ids deve ter no máximo 1000 itens")
+    private List<@NotNull Long> ids;
+
+}
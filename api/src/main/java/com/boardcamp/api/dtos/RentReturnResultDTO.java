@@ -0,0 +1,11 @@
+package com.boardcamp.api.dtos;
+
+public record RentReturnResultDTO(Long id, Outcome outcome, Integer delayFee) {
+
+    public enum Outcome {
+        RETURNED,
+        ALREADY_RETURNED,
+        NOT_FOUND
+    }
+
+}
@@ -0,0 +1,6 @@
+package com.boardcamp.api.dtos;
+
+import java.time.LocalDate;
+
+public record RevenueDTO(Long gameId, LocalDate date, long revenue) {
+}
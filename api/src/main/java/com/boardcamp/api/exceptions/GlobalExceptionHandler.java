@@ -1,10 +1,13 @@
 package com.boardcamp.api.exceptions;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.boardcamp.api.config.MetricsConfig;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerConflictException;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerInvalidCpfException;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerInvalidPhoneException;
@@ -16,58 +19,90 @@ import com.boardcamp.api.exceptions.rent_exceptions.RentActiveException;
 import com.boardcamp.api.exceptions.rent_exceptions.RentClosedException;
 import com.boardcamp.api.exceptions.rent_exceptions.RentNotFoundException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler({ GameNameConflictException.class })
     public ResponseEntity<String> handleGameNameConflict(GameNameConflictException exception) {
+        count(exception);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(exception.getMessage());
     }
 
     @ExceptionHandler({ CustomerConflictException.class })
     public ResponseEntity<String> handleCustomerCpfConflict(CustomerConflictException exception) {
+        count(exception);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(exception.getMessage());
     }
 
     @ExceptionHandler({ CustomerInvalidCpfException.class })
     public ResponseEntity<String> handleCustomerInvalidCpfException(CustomerInvalidCpfException exception) {
+        count(exception);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
     }
 
     @ExceptionHandler({ CustomerInvalidPhoneException.class })
     public ResponseEntity<String> handleCustomerInvalidPhoneException(CustomerInvalidPhoneException exception) {
+        count(exception);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
     }
 
     @ExceptionHandler({CustomerNotFoundException.class})
     public ResponseEntity<String> handleCustomerNotFoundException(CustomerNotFoundException exception){
+        count(exception);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
     }
 
     @ExceptionHandler({GameNotFoundException.class})
     public ResponseEntity<String> handleGameNotFoundException(GameNotFoundException exception){
+        count(exception);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
     }
 
     @ExceptionHandler({GameStockException.class})
     public ResponseEntity<String> handleGameStockException(GameStockException exception){
+        count(exception);
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(exception.getMessage());
     }
 
     @ExceptionHandler({RentNotFoundException.class})
     public ResponseEntity<String> handleRentNotFoundException(RentNotFoundException exception){
+        count(exception);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
     }
 
 
     @ExceptionHandler({RentClosedException.class})
     public ResponseEntity<String> handleRentClosedException(RentClosedException exception){
+        count(exception);
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(exception.getMessage());
     }
 
     @ExceptionHandler({RentActiveException.class})
     public ResponseEntity<String> handleRentActiveException(RentActiveException exception){
+        count(exception);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
     }
 
+    // No connection could be admitted in time; the request is safe to retry
+    @ExceptionHandler({CannotCreateTransactionException.class})
+    public ResponseEntity<String> handleCannotCreateTransactionException(CannotCreateTransactionException exception){
+        count(exception);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("The database is busy, try again later");
+    }
+
+    private void count(Exception exception) {
+        meterRegistry.counter(MetricsConfig.EXCEPTION_COUNTER, "exception", exception.getClass().getSimpleName())
+                .increment();
+    }
+
 }
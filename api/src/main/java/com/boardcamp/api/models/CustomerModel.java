@@ -1,7 +1,13 @@
 package com.boardcamp.api.models;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.boardcamp.api.config.SecondLevelCacheConfig;
 import com.boardcamp.api.dtos.CustomerDTO;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -16,9 +22,15 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.CUSTOMERS_REGION)
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 @Table(name = "customers")
 public class CustomerModel {
 
+    // Unique constraint on cpf, created by V2__extend_schema.sql
+    public static final String CPF_CONSTRAINT = "customers_cpf_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
@@ -0,0 +1,50 @@
+package com.boardcamp.api.models;
+
+import java.time.LocalDate;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Revenue of one game on one day: original prices on the rent date plus delay fees on the return date.
+// Each day is spread over up to 16 bucket rows so concurrent rentals of one game don't queue on one row lock;
+// the revenue of a day is the sum of its buckets. Rows are only written by GameDailyRevenueRepository, hence the
+// identity id, and the bucket comes from the column default
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "game_daily_revenue")
+public class GameDailyRevenueModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "gameId", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private GameModel game;
+
+    @Column(nullable = false)
+    private LocalDate revenueDate;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    private short bucket;
+
+    @Column(nullable = false)
+    private long revenue;
+
+}
@@ -1,8 +1,16 @@
 package com.boardcamp.api.models;
 
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Formula;
+
+import com.boardcamp.api.config.SecondLevelCacheConfig;
 import com.boardcamp.api.dtos.GameDTO;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -17,9 +25,15 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.GAMES_REGION)
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 @Table(name = "games")
 public class GameModel {
 
+    // Unique constraint on name, created by V2__extend_schema.sql
+    public static final String NAME_CONSTRAINT = "games_name_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
@@ -36,12 +50,36 @@ public class GameModel {
     @Column(nullable = false)
     private int pricePerDay;
 
+    @Column
+    @JsonIgnore
+    private Integer stockSlots;
+
+    @Formula("(CASE WHEN stock_slots IS NULL THEN NULL "
+            + "ELSE (SELECT COALESCE(SUM(s.stock), 0) FROM game_stock_slots s WHERE s.game_id = id) END)")
+    @JsonIgnore
+    private Integer shardedStockTotal;
+
+
 
+    public GameModel(Long id, String name, String image, int stockTotal, int pricePerDay) {
+        this(id, name, image, stockTotal, pricePerDay, null, null);
+    }
 
     public GameModel(GameDTO body){
         this.name = body.getName();
         this.image = body.getImage();
         this.stockTotal = body.getStockTotal();
         this.pricePerDay = body.getPricePerDay();
+        this.stockSlots = body.getStockSlots();
+    }
+
+    // Sharded games keep their stock in game_stock_slots, so the total is the sum of the slots
+    public int getStockTotal() {
+        return shardedStockTotal != null ? shardedStockTotal : stockTotal;
+    }
+
+    @JsonIgnore
+    public boolean isSharded() {
+        return stockSlots != null;
     }
 }
@@ -0,0 +1,47 @@
+package com.boardcamp.api.models;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "game_stock_slots")
+public class GameStockSlotModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "gameId", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private GameModel game;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(nullable = false)
+    private int stock;
+
+    public GameStockSlotModel(GameModel game, int slot, int stock) {
+        this.game = game;
+        this.slot = slot;
+        this.stock = stock;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.boardcamp.api.models;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import com.boardcamp.api.config.SecondLevelCacheConfig;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The columns of a game that never change after it is created, which is all a rental needs to look up.
+// Every rental changes the stock, so it evicts the game from the games region; this read-only view of the
+// same row lives in its own region and stays cached
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = SecondLevelCacheConfig.GAME_SUMMARIES_REGION)
+@Table(name = "games")
+public class GameSummaryModel {
+
+    @Id
+    private Long id;
+
+    @Column(length = 150, nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private int pricePerDay;
+
+    @Column
+    private Integer stockSlots;
+
+    public boolean isSharded() {
+        return stockSlots != null;
+    }
+}
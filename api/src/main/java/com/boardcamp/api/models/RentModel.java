@@ -6,11 +6,14 @@ import com.boardcamp.api.dtos.RentDTO;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,15 +26,17 @@ import lombok.NoArgsConstructor;
 @Table(name = "rents")
 public class RentModel {
 
+    // Pooled: each nextval hands out a block of ids as large as a JDBC insert batch
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rents_seq")
+    @SequenceGenerator(name = "rents_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customerId")
     private CustomerModel customer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "gameId")
     private GameModel game;
 
@@ -41,6 +46,10 @@ public class RentModel {
     @Column(nullable = false)
     private int daysRented;
 
+    // Derived from rentDate and daysRented on insert so overdue rentals can be found through an index
+    @Column
+    private LocalDate expectedReturnDate;
+
     @Column
     private LocalDate returnDate;
 
@@ -62,4 +71,9 @@ public class RentModel {
         this.delayFee = 0;
     }
 
+    @PrePersist
+    void computeExpectedReturnDate() {
+        this.expectedReturnDate = rentDate.plusDays(daysRented);
+    }
+
 }
@@ -1,13 +1,44 @@
 package com.boardcamp.api.repositories;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import com.boardcamp.api.dtos.CustomerResponseDTO;
 import com.boardcamp.api.models.CustomerModel;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<CustomerModel, Long> {
     
-    boolean existsByCpf(String name); 
+    List<CustomerResponseDTO> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    List<CustomerResponseDTO> findByCpf(String cpf);
+
+    @Query("SELECT c.id FROM CustomerModel c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Served by the customers_name_trgm_idx trigram index; names starting with the text are listed first
+    @Query("""
+            SELECT new com.boardcamp.api.dtos.CustomerResponseDTO(c.id, c.name, c.phone, c.cpf) FROM CustomerModel c
+            WHERE c.name ILIKE :contains ESCAPE '\\'
+            ORDER BY CASE WHEN c.name ILIKE :startsWith ESCAPE '\\' THEN 0 ELSE 1 END, c.name, c.id
+            """)
+    List<CustomerResponseDTO> searchByName(@Param("contains") String contains, @Param("startsWith") String startsWith,
+            Limit limit);
+
+    // What the front desk types first: one or two characters, matched as a name prefix. Read in order from
+    // customers_name_prefix_idx, so the scan stops at the limit instead of sorting every match
+    @Query(value = """
+            SELECT id, name, phone, cpf FROM customers
+            WHERE lower(name) LIKE lower(:prefix)
+            ORDER BY lower(name) USING ~<~, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<CustomerResponseDTO> searchByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
 
 }
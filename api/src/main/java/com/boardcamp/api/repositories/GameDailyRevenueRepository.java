@@ -0,0 +1,65 @@
+package com.boardcamp.api.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.boardcamp.api.dtos.RevenueDTO;
+import com.boardcamp.api.models.GameDailyRevenueModel;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+@Repository
+public interface GameDailyRevenueRepository extends JpaRepository<GameDailyRevenueModel, Long> {
+
+    // Declaring the query space keeps this write from evicting every cached entity.
+    // The bucket column defaults to a random bucket, so concurrent writes for one game rarely touch the same row
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "game_daily_revenue"))
+    @Query(value = """
+            INSERT INTO game_daily_revenue (game_id, revenue_date, revenue)
+            VALUES (:gameId, :date, :amount)
+            ON CONFLICT (game_id, revenue_date, bucket) DO UPDATE SET revenue = game_daily_revenue.revenue + EXCLUDED.revenue
+            """, nativeQuery = true)
+    void addRevenue(@Param("gameId") Long gameId, @Param("date") LocalDate date, @Param("amount") long amount);
+
+    // Batched form of addRevenue; each game may appear only once
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "game_daily_revenue"))
+    @Query(value = """
+            INSERT INTO game_daily_revenue (game_id, revenue_date, revenue)
+            SELECT game_id, :date, amount FROM unnest(CAST(:gameIds AS bigint[]), CAST(:amounts AS bigint[])) AS a(game_id, amount)
+            ON CONFLICT (game_id, revenue_date, bucket) DO UPDATE SET revenue = game_daily_revenue.revenue + EXCLUDED.revenue
+            """, nativeQuery = true)
+    void addRevenues(@Param("gameIds") Long[] gameIds, @Param("date") LocalDate date, @Param("amounts") Long[] amounts);
+
+    // Same as addRevenues with a date per row; each (game, date) pair may appear only once
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "game_daily_revenue"))
+    @Query(value = """
+            INSERT INTO game_daily_revenue (game_id, revenue_date, revenue)
+            SELECT * FROM unnest(CAST(:gameIds AS bigint[]), CAST(:dates AS date[]), CAST(:amounts AS bigint[]))
+            ON CONFLICT (game_id, revenue_date, bucket) DO UPDATE SET revenue = game_daily_revenue.revenue + EXCLUDED.revenue
+            """, nativeQuery = true)
+    void addDailyRevenues(@Param("gameIds") Long[] gameIds, @Param("dates") LocalDate[] dates,
+            @Param("amounts") Long[] amounts);
+
+    @Query("""
+            SELECT new com.boardcamp.api.dtos.RevenueDTO(r.game.id, r.revenueDate, SUM(r.revenue))
+            FROM GameDailyRevenueModel r
+            WHERE r.revenueDate BETWEEN :from AND :to AND (:gameId IS NULL OR r.game.id = :gameId)
+            GROUP BY r.game.id, r.revenueDate
+            ORDER BY r.revenueDate, r.game.id
+            """)
+    List<RevenueDTO> findRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("gameId") Long gameId);
+
+}
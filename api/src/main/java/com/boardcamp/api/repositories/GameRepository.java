@@ -2,14 +2,92 @@ package com.boardcamp.api.repositories;
 
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import com.boardcamp.api.dtos.GameResponseDTO;
+import com.boardcamp.api.dtos.GamePriceDTO;
+import com.boardcamp.api.dtos.GameSuggestionDTO;
 import com.boardcamp.api.models.GameModel;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
 public interface GameRepository extends JpaRepository<GameModel, Long> {
 
-    boolean existsByName(String name); 
+    // Query space of every stock statement. No entity maps it, so Hibernate evicts no cache region for them;
+    // callers evict just the games they touched through GameCatalogCache.invalidate(gameIds)
+    String STOCK_SPACE = "game_stock";
+
+    @Query("""
+            SELECT new com.boardcamp.api.dtos.GameResponseDTO(
+                g.id, g.name, g.image, COALESCE(g.shardedStockTotal, g.stockTotal), g.pricePerDay)
+            FROM GameModel g WHERE g.id > :after ORDER BY g.id
+            """)
+    List<GameResponseDTO> findByIdGreaterThanOrderByIdAsc(@Param("after") Long after, Limit limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_SPACE))
+    @Query(value = "UPDATE games SET stock_total = stock_total - 1 WHERE id = :id AND stock_slots IS NULL AND stock_total > 0",
+            nativeQuery = true)
+    int decrementStock(@Param("id") Long id);
+
+    // Takes amounts[i] units of every unsharded gameIds[i] that still has them and returns how many games it updated.
+    // The rows are locked in id order first, so overlapping carts cannot deadlock on each other
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_SPACE))
+    @Query(value = """
+            WITH amounts AS (
+                SELECT * FROM unnest(CAST(:gameIds AS bigint[]), CAST(:amounts AS int[])) AS a(game_id, amount)
+            ), locked AS (
+                SELECT g.id FROM games g
+                WHERE g.id = ANY(CAST(:gameIds AS bigint[])) AND g.stock_slots IS NULL
+                ORDER BY g.id
+                FOR UPDATE
+            )
+            UPDATE games g SET stock_total = g.stock_total - a.amount
+            FROM amounts a JOIN locked l ON l.id = a.game_id
+            WHERE g.id = a.game_id AND g.stock_total >= a.amount
+            """, nativeQuery = true)
+    int decrementStocks(@Param("gameIds") Long[] gameIds, @Param("amounts") Integer[] amounts);
+
+    // Adds amounts[i] to the stock of every unsharded gameIds[i]. Like decrementStocks it locks the rows in id order
+    // first, so restocks and carts touching the same games cannot deadlock on each other
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_SPACE))
+    @Query(value = """
+            WITH amounts AS (
+                SELECT * FROM unnest(CAST(:gameIds AS bigint[]), CAST(:amounts AS int[])) AS a(game_id, amount)
+            ), locked AS (
+                SELECT g.id FROM games g
+                WHERE g.id = ANY(CAST(:gameIds AS bigint[])) AND g.stock_slots IS NULL
+                ORDER BY g.id
+                FOR UPDATE
+            )
+            UPDATE games g SET stock_total = g.stock_total + a.amount
+            FROM amounts a JOIN locked l ON l.id = a.game_id
+            WHERE g.id = a.game_id
+            """, nativeQuery = true)
+    void restock(@Param("gameIds") Long[] gameIds, @Param("amounts") Integer[] amounts);
+
+    // Sharded games keep their stock in game_stock_slots, every other game in its own row
+    @Query(value = "SELECT (SELECT COALESCE(SUM(stock_total), 0) FROM games WHERE stock_slots IS NULL)"
+            + " + (SELECT COALESCE(SUM(stock), 0) FROM game_stock_slots)", nativeQuery = true)
+    long sumStock();
+
+    @Query("SELECT new com.boardcamp.api.dtos.GameSuggestionDTO(g.id, g.name) FROM GameModel g")
+    List<GameSuggestionDTO> findAllSuggestions();
+
+    @Query("SELECT new com.boardcamp.api.dtos.GamePriceDTO(g.id, g.pricePerDay) FROM GameModel g WHERE g.id IN :ids")
+    List<GamePriceDTO> findPrices(@Param("ids") Collection<Long> ids);
 
-    
 }
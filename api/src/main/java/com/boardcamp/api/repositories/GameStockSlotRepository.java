@@ -0,0 +1,68 @@
+package com.boardcamp.api.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.boardcamp.api.models.GameStockSlotModel;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+@Repository
+public interface GameStockSlotRepository extends JpaRepository<GameStockSlotModel, Long> {
+
+    // Picks a random non-empty slot that no other transaction is holding
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = GameRepository.STOCK_SPACE))
+    @Query(value = """
+            UPDATE game_stock_slots SET stock = stock - 1
+            WHERE id = (
+                SELECT id FROM game_stock_slots
+                WHERE game_id = :gameId AND stock > 0
+                ORDER BY random()
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int decrementRandomUnlockedSlot(@Param("gameId") Long gameId);
+
+    // Fallback when every non-empty slot is locked: waits for one of them
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = GameRepository.STOCK_SPACE))
+    @Query(value = """
+            UPDATE game_stock_slots SET stock = stock - 1
+            WHERE id = (
+                SELECT id FROM game_stock_slots
+                WHERE game_id = :gameId AND stock > 0
+                LIMIT 1
+                FOR UPDATE)
+            """, nativeQuery = true)
+    int decrementAnySlot(@Param("gameId") Long gameId);
+
+    // Adds amounts[i] to one random slot of every sharded gameIds[i], so returned units land on a different slot
+    // each time instead of piling onto one hot row. The chosen slots are locked in game id order, as carts take them
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = GameRepository.STOCK_SPACE))
+    @Query(value = """
+            WITH targets AS (
+                SELECT a.game_id, a.amount, floor(random() * g.stock_slots)::int AS slot
+                FROM unnest(CAST(:gameIds AS bigint[]), CAST(:amounts AS int[])) AS a(game_id, amount)
+                JOIN games g ON g.id = a.game_id
+                WHERE g.stock_slots IS NOT NULL
+            ), locked AS (
+                SELECT s.id, t.amount FROM game_stock_slots s
+                JOIN targets t ON t.game_id = s.game_id AND t.slot = s.slot
+                ORDER BY s.game_id
+                FOR UPDATE OF s
+            )
+            UPDATE game_stock_slots s SET stock = s.stock + l.amount
+            FROM locked l
+            WHERE s.id = l.id
+            """, nativeQuery = true)
+    void restockRandomSlots(@Param("gameIds") Long[] gameIds, @Param("amounts") Integer[] amounts);
+
+}
@@ -0,0 +1,11 @@
+package com.boardcamp.api.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.boardcamp.api.models.GameSummaryModel;
+
+@Repository
+public interface GameSummaryRepository extends JpaRepository<GameSummaryModel, Long> {
+
+}
@@ -1,13 +1,86 @@
 package com.boardcamp.api.repositories;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
+
+import com.boardcamp.api.dtos.OverdueRentDTO;
+import com.boardcamp.api.dtos.RentResponseDTO;
 import com.boardcamp.api.models.RentModel;
 
 
 @Repository
-public interface RentRepository extends JpaRepository<RentModel, Long> {
-    
+public interface RentRepository extends JpaRepository<RentModel, Long>, JpaSpecificationExecutor<RentModel>,
+        RentResponseRepository {
+
+    @Override
+    @EntityGraph(attributePaths = { "customer", "game" })
+    Optional<RentModel> findById(Long id);
+
+    Optional<RentModel> findWithoutAssociationsById(Long id);
+
+    long countByReturnDateIsNull();
+
+    int EXPORT_FETCH_SIZE = 1000;
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("""
+            SELECT new com.boardcamp.api.dtos.RentResponseDTO(
+                r.id, r.rentDate, r.daysRented, r.returnDate, r.originalPrice, r.delayFee, c.id, c.name, g.id, g.name)
+            FROM RentModel r JOIN r.customer c JOIN r.game g
+            ORDER BY r.id
+            """)
+    Stream<RentResponseDTO> streamAllForExport();
+
+    record ReturnedRent(Long id, Long gameId, boolean sharded, int delayFee) {
+    }
+
+    // Closes every listed rental that is still open: days past the expected return date times the price per day.
+    // The rows are locked in id order first and the return_date condition is checked again once a lock is granted,
+    // so of two concurrent returns of the same rental only one gets it back
+    @Query(value = """
+            WITH locked AS (
+                SELECT id FROM rents
+                WHERE id = ANY(:ids) AND return_date IS NULL
+                ORDER BY id
+                FOR UPDATE
+            )
+            UPDATE rents r SET return_date = :returnDate,
+                delay_fee = GREATEST(:returnDate - (r.rent_date + r.days_rented), 0) * g.price_per_day
+            FROM locked l, games g
+            WHERE r.id = l.id AND g.id = r.game_id AND r.return_date IS NULL
+            RETURNING r.id AS id, r.game_id AS gameId, g.stock_slots IS NOT NULL AS sharded, r.delay_fee AS delayFee
+            """, nativeQuery = true)
+    List<ReturnedRent> returnOpenRentals(@Param("ids") Long[] ids, @Param("returnDate") LocalDate returnDate);
+
+    @Query("SELECT r.id FROM RentModel r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // The fee accrues with the same rule closeRental applies: days past the expected return date times the price per day
+    @Query("""
+            SELECT new com.boardcamp.api.dtos.OverdueRentDTO(
+                r.id, c.id, c.name, c.phone, g.id, g.name, r.rentDate, r.expectedReturnDate,
+                (current_date - r.expectedReturnDate) by day,
+                ((current_date - r.expectedReturnDate) by day) * g.pricePerDay)
+            FROM RentModel r JOIN r.customer c JOIN r.game g
+            WHERE r.returnDate IS NULL AND r.expectedReturnDate < current_date AND r.id > :after
+            ORDER BY r.id
+            """)
+    List<OverdueRentDTO> findOverdue(Long after, Limit limit);
+
 }
@@ -0,0 +1,15 @@
+package com.boardcamp.api.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.boardcamp.api.dtos.RentResponseDTO;
+import com.boardcamp.api.models.RentModel;
+
+// Fragment of RentRepository: the fluent findBy cannot project a Specification into a constructor expression
+public interface RentResponseRepository {
+
+    List<RentResponseDTO> findResponses(Specification<RentModel> spec, int limit);
+
+}
@@ -0,0 +1,45 @@
+package com.boardcamp.api.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.boardcamp.api.dtos.RentResponseDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.RentModel;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+
+class RentResponseRepositoryImpl implements RentResponseRepository {
+
+    private final EntityManager entityManager;
+
+    RentResponseRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<RentResponseDTO> findResponses(Specification<RentModel> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RentResponseDTO> query = cb.createQuery(RentResponseDTO.class);
+
+        Root<RentModel> rent = query.from(RentModel.class);
+        Join<RentModel, CustomerModel> customer = rent.join("customer");
+        Join<RentModel, GameModel> game = rent.join("game");
+
+        query.select(cb.construct(RentResponseDTO.class,
+                rent.get("id"), rent.get("rentDate"), rent.get("daysRented"), rent.get("returnDate"),
+                rent.get("originalPrice"), rent.get("delayFee"),
+                customer.get("id"), customer.get("name"), game.get("id"), game.get("name")))
+                .where(spec.toPredicate(rent, query, cb))
+                .orderBy(cb.asc(rent.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+}
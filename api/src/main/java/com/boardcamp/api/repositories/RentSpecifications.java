@@ -0,0 +1,69 @@
+package com.boardcamp.api.repositories;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.boardcamp.api.dtos.RentFilterDTO;
+import com.boardcamp.api.models.RentModel;
+
+// Only the filters that were sent become predicates, so each one can use its own index
+public final class RentSpecifications {
+
+    private RentSpecifications() {
+    }
+
+    public static Specification<RentModel> matching(RentFilterDTO filter, Long after) {
+        Specification<RentModel> spec = idGreaterThan(after);
+
+        if (filter.getCustomerId() != null) {
+            spec = spec.and(customerId(filter.getCustomerId()));
+        }
+        if (filter.getGameId() != null) {
+            spec = spec.and(gameId(filter.getGameId()));
+        }
+        if ("open".equals(filter.getStatus())) {
+            spec = spec.and(open());
+        }
+        if ("closed".equals(filter.getStatus())) {
+            spec = spec.and(closed());
+        }
+        if (filter.getStartDate() != null) {
+            spec = spec.and(rentedFrom(filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            spec = spec.and(rentedUntil(filter.getEndDate()));
+        }
+
+        return spec;
+    }
+
+    public static Specification<RentModel> idGreaterThan(Long after) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), after);
+    }
+
+    public static Specification<RentModel> customerId(Long customerId) {
+        return (root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId);
+    }
+
+    public static Specification<RentModel> gameId(Long gameId) {
+        return (root, query, cb) -> cb.equal(root.get("game").get("id"), gameId);
+    }
+
+    public static Specification<RentModel> open() {
+        return (root, query, cb) -> cb.isNull(root.get("returnDate"));
+    }
+
+    public static Specification<RentModel> closed() {
+        return (root, query, cb) -> cb.isNotNull(root.get("returnDate"));
+    }
+
+    public static Specification<RentModel> rentedFrom(LocalDate startDate) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("rentDate"), startDate);
+    }
+
+    public static Specification<RentModel> rentedUntil(LocalDate endDate) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("rentDate"), endDate);
+    }
+
+}
@@ -0,0 +1,335 @@
+package com.boardcamp.api.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.stereotype.Component;
+
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.dtos.ImportReportDTO.RowError;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Streams a CSV upload into PostgreSQL with COPY. Rows are parsed and validated one at a time, copied
+// COPY_BUFFER_SIZE bytes at a time into a temporary staging table and merged with ON CONFLICT DO
+// NOTHING, so a duplicate is reported against its row instead of aborting the whole load. Only the
+// copy buffer and the first MAX_REPORTED_ERRORS errors are kept in memory. Must be called inside a
+// transaction.
+@Component
+public class CsvImporter {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    static final int COPY_BUFFER_SIZE = 64 * 1024;
+    static final int MAX_RECORD_LENGTH = 8 * 1024;
+    static final int CONFLICT_FETCH_SIZE = 1000;
+
+    public record Target<T>(
+            Class<?> entity,
+            String table,
+            List<String> header,
+            List<String> columns,
+            String conflictColumn,
+            String conflictMessage,
+            Function<UnaryOperator<String>, T> parser,
+            Consumer<T> checks,
+            Function<T, List<Object>> values) {
+    }
+
+    final EntityManager entityManager;
+    final SessionFactoryImplementor sessionFactory;
+    final Validator validator;
+
+    public CsvImporter(EntityManager entityManager, EntityManagerFactory entityManagerFactory, Validator validator) {
+        this.entityManager = entityManager;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.validator = validator;
+    }
+
+    public <T> ImportReportDTO importCsv(InputStream csv, Target<T> target) {
+        return importCsv(csv, target, null, null);
+    }
+
+    // Also hands the id and the given column of every inserted row to inserted, in file order
+    public <T> ImportReportDTO importCsv(InputStream csv, Target<T> target, String column,
+            BiConsumer<Long, String> inserted) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try {
+                return copy(connection, new CsvReader(new InputStreamReader(csv, StandardCharsets.UTF_8)), target,
+                        column, inserted);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T> ImportReportDTO copy(Connection connection, CsvReader reader, Target<T> target, String column,
+            BiConsumer<Long, String> inserted) throws SQLException, IOException {
+
+        Report report = new Report();
+
+        List<String> header = reader.next();
+        if (header == null) {
+            return report.reject(0, "The file is empty").build();
+        }
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            index.put(header.get(i).replace("\uFEFF", "").strip(), i);
+        }
+        List<String> missing = target.header().stream().filter(name -> !index.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            return report.reject(0, "Missing columns: " + String.join(", ", missing)).build();
+        }
+
+        String staging = target.table() + "_import";
+        String columns = String.join(", ", target.columns());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE " + staging + " (import_row bigint, LIKE " + target.table()
+                    + ") ON COMMIT DROP");
+        }
+
+        IdentifierGenerator generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(target.entity()).getGenerator();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        String copy = "COPY " + staging + " (import_row, id, " + columns + ") FROM STDIN WITH (FORMAT csv)";
+
+        // Ids come from the entity's own pooled generator on the transaction's connection, which is free between
+        // the per-buffer COPYs; borrowing a second pooled connection could stall concurrent imports on the pool
+        long staged = 0;
+        StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + MAX_RECORD_LENGTH);
+        StringBuilder line = new StringBuilder(MAX_RECORD_LENGTH);
+        long row = 0;
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            row++;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (reader.truncated) {
+                report.reject(row, "The row is longer than " + MAX_RECORD_LENGTH + " characters");
+                continue;
+            }
+
+            List<String> fields = record;
+            line.setLength(0);
+            String error = validate(name -> {
+                int position = index.get(name);
+                return position < fields.size() && !fields.get(position).isBlank()
+                        ? fields.get(position).strip()
+                        : null;
+            }, target, line);
+            if (error != null) {
+                report.reject(row, error);
+                continue;
+            }
+
+            Object id = generator.generate(session, null);
+            buffer.append(row).append(',').append(id).append(line);
+            staged++;
+
+            if (buffer.length() >= COPY_BUFFER_SIZE) {
+                write(connection, copy, buffer);
+            }
+        }
+        write(connection, copy, buffer);
+
+        long conflicts = 0;
+        String merge = "WITH inserted AS ("
+                + " INSERT INTO " + target.table() + " (id, " + columns + ")"
+                + " SELECT id, " + columns + " FROM " + staging + " ORDER BY import_row"
+                + " ON CONFLICT (" + target.conflictColumn() + ") DO NOTHING RETURNING id)"
+                + " SELECT s.import_row FROM " + staging + " s"
+                + " WHERE NOT EXISTS (SELECT 1 FROM inserted i WHERE i.id = s.id) ORDER BY s.import_row";
+        try (PreparedStatement statement = connection.prepareStatement(merge)) {
+            statement.setFetchSize(CONFLICT_FETCH_SIZE);
+            try (ResultSet conflicting = statement.executeQuery()) {
+                while (conflicting.next()) {
+                    report.reject(conflicting.getLong(1), target.conflictMessage());
+                    conflicts++;
+                }
+            }
+        }
+
+        report.imported = staged - conflicts;
+
+        // Staged ids are fresh, so the only target rows carrying them are the ones the merge inserted
+        if (inserted != null && report.imported > 0) {
+            String select = "SELECT t.id, t." + column + " FROM " + target.table() + " t"
+                    + " JOIN " + staging + " s ON s.id = t.id ORDER BY s.import_row";
+            try (PreparedStatement statement = connection.prepareStatement(select)) {
+                statement.setFetchSize(CONFLICT_FETCH_SIZE);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        inserted.accept(rows.getLong(1), rows.getString(2));
+                    }
+                }
+            }
+        }
+
+        return report.build();
+    }
+
+    // Encodes the row's values into line when it is valid, otherwise returns the error message
+    private <T> String validate(UnaryOperator<String> field, Target<T> target, StringBuilder line) {
+        T row;
+        try {
+            row = target.parser().apply(field);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        try {
+            target.checks().accept(row);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+
+        for (Object value : target.values().apply(row)) {
+            line.append(',');
+            if (value instanceof String text) {
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value != null) {
+                line.append(value);
+            }
+        }
+        line.append('\n');
+        return null;
+    }
+
+    private static void write(Connection connection, String copy, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copy);
+        try {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        buffer.setLength(0);
+    }
+
+    private static class Report {
+        long imported;
+        long rejected;
+        final List<RowError> errors = new ArrayList<>();
+
+        Report reject(long row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+            return this;
+        }
+
+        ImportReportDTO build() {
+            errors.sort(Comparator.comparingLong(RowError::row));
+            return new ImportReportDTO(imported, rejected, errors);
+        }
+    }
+
+    // RFC 4180 records: quoted fields may hold commas, doubled quotes and line breaks. Characters past
+    // MAX_RECORD_LENGTH are dropped and the record is flagged instead of being buffered.
+    static class CsvReader {
+        private final Reader reader;
+        boolean truncated;
+
+        CsvReader(Reader reader) {
+            this.reader = new BufferedReader(reader);
+        }
+
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int length = 0;
+            truncated = false;
+
+            for (; c != -1; c = reader.read()) {
+                if (++length > MAX_RECORD_LENGTH) {
+                    truncated = true;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            append(field, '"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        append(field, (char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    if (!truncated) {
+                        fields.add(field.toString());
+                    }
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    append(field, (char) c);
+                }
+            }
+
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private void append(StringBuilder field, char c) {
+            if (!truncated) {
+                field.append(c);
+            }
+        }
+    }
+
+}
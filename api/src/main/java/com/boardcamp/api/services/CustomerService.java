@@ -1,9 +1,20 @@
 package com.boardcamp.api.services;
 
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.boardcamp.api.config.MetricsConfig;
+import com.boardcamp.api.dtos.CursorPageDTO;
 import com.boardcamp.api.dtos.CustomerDTO;
+import com.boardcamp.api.dtos.CustomerResponseDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.exceptions.ConstraintViolations;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerConflictException;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerInvalidCpfException;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerInvalidPhoneException;
@@ -12,19 +23,54 @@ import com.boardcamp.api.models.CustomerModel;
 
 import com.boardcamp.api.repositories.CustomerRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CustomerService {
 
-    final CustomerRepository customerRepository;
+    // pg_trgm extracts no trigram from a shorter pattern, so customers_name_trgm_idx cannot serve it
+    static final int MIN_SUBSTRING_SEARCH_LENGTH = 3;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    final CustomerRepository customerRepository;
+    final CsvImporter csvImporter;
+
+    final CsvImporter.Target<CustomerDTO> importTarget = new CsvImporter.Target<>(
+            CustomerModel.class,
+            "customers",
+            List.of("name", "phone", "cpf"),
+            List.of("name", "phone", "cpf"),
+            "cpf",
+            "A customer with this cpf already exists",
+            field -> new CustomerDTO(field.apply("name"), field.apply("phone"), field.apply("cpf")),
+            this::validateDocuments,
+            customer -> Arrays.asList(customer.getName(), customer.getPhone(), customer.getCpf()));
+
+    public CustomerService(CustomerRepository customerRepository, CsvImporter csvImporter) {
         this.customerRepository = customerRepository;
+        this.csvImporter = csvImporter;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerResponseDTO> getCustomers(Long after, int limit) {
+        List<CustomerResponseDTO> customers = customerRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+        return CursorPageDTO.of(customers, limit, CustomerResponseDTO::id);
     }
 
-    public List<CustomerModel> getCustomers() {
-        return customerRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<CustomerResponseDTO> searchCustomers(String cpf, String name, int limit) {
+        if (cpf != null) {
+            return customerRepository.findByCpf(cpf);
+        }
+
+        String text = name.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        if (name.length() < MIN_SUBSTRING_SEARCH_LENGTH) {
+            return customerRepository.searchByNamePrefix(text + "%", limit);
+        }
+        return customerRepository.searchByName("%" + text + "%", text + "%", Limit.of(limit));
     }
 
+    @Transactional(readOnly = true)
     public CustomerModel getById(Long id) {
 
         return customerRepository
@@ -33,8 +79,29 @@ public class CustomerService {
 
     }
 
+    @Transactional
     public CustomerModel createCustomer(CustomerDTO body) {
 
+        validateDocuments(body);
+
+        CustomerModel customer = new CustomerModel(body);
+
+        try {
+            return customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, CustomerModel.CPF_CONSTRAINT)) {
+                throw new CustomerConflictException("A customer with this cpf already exists");
+            }
+            throw e;
+        }
+    }
+
+    @Transactional
+    public ImportReportDTO importCustomers(InputStream csv) {
+        return csvImporter.importCsv(csv, importTarget);
+    }
+
+    private void validateDocuments(CustomerDTO body) {
         try {
             Long.parseLong(body.getPhone());
         } catch (NumberFormatException e) {
@@ -46,14 +113,6 @@ public class CustomerService {
         } catch (NumberFormatException e) {
             throw new CustomerInvalidCpfException("O CPF deve conter apenas números");
         }
-
-        if (customerRepository.existsByCpf(body.getCpf())) {
-            throw new CustomerConflictException("A customer with this cpf already exists");
-        }
-
-        CustomerModel customer = new CustomerModel(body);
-
-        return customerRepository.save(customer);
     }
 
 }
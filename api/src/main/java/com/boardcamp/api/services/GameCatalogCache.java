@@ -0,0 +1,115 @@
+package com.boardcamp.api.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.boardcamp.api.dtos.CursorPageDTO;
+import com.boardcamp.api.dtos.GameResponseDTO;
+import com.boardcamp.api.models.GameModel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+// Holds GET /games pages already encoded as JSON and gzip. Any change to the catalog swaps in an
+// empty snapshot with a new version, so ETags handed out before the change stop matching.
+// Stock changes also evict the games they touched from the second-level cache.
+@Component
+public class GameCatalogCache {
+
+    private static final int MAX_CACHED_PAGES = 1024;
+
+    public record EncodedPage(String etag, byte[] json, byte[] gzip, Long nextCursor) {
+    }
+
+    private record Snapshot(long version, Map<String, EncodedPage> pages) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache secondLevelCache;
+    private final AtomicReference<Snapshot> current;
+
+    public GameCatalogCache(ObjectMapper objectMapper, EntityManagerFactory entityManagerFactory) {
+        this.objectMapper = objectMapper;
+        this.secondLevelCache = entityManagerFactory.getCache();
+        this.current = new AtomicReference<>(new Snapshot(System.currentTimeMillis(), new ConcurrentHashMap<>()));
+    }
+
+    public EncodedPage getPage(Long after, int limit, Supplier<CursorPageDTO<GameResponseDTO>> loader) {
+        Snapshot snapshot = current.get();
+        String key = after + ":" + limit;
+
+        EncodedPage page = snapshot.pages().get(key);
+        if (page != null) {
+            return page;
+        }
+
+        page = encode("\"" + snapshot.version() + "-" + key + "\"", loader.get());
+
+        // A page loaded while the catalog changed may be stale, so it is served but not kept
+        if (current.get() == snapshot && snapshot.pages().size() < MAX_CACHED_PAGES) {
+            snapshot.pages().putIfAbsent(key, page);
+        }
+
+        return page;
+    }
+
+    public void invalidate() {
+        afterCommit(this::swapSnapshot);
+    }
+
+    // For statements in GameRepository.STOCK_SPACE, which leave the second-level cache alone
+    public void invalidate(Collection<Long> gameIds) {
+        afterCommit(() -> {
+            swapSnapshot();
+            gameIds.forEach(id -> secondLevelCache.evict(GameModel.class, id));
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void swapSnapshot() {
+        current.updateAndGet(snapshot -> new Snapshot(snapshot.version() + 1, new ConcurrentHashMap<>()));
+    }
+
+    private EncodedPage encode(String etag, CursorPageDTO<GameResponseDTO> games) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(games.items());
+
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+
+            return new EncodedPage(etag, json, gzip.toByteArray(), games.nextCursor());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("could not encode the game catalog", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
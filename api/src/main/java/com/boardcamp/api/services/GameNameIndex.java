@@ -0,0 +1,153 @@
+package com.boardcamp.api.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.boardcamp.api.dtos.GameSuggestionDTO;
+import com.boardcamp.api.repositories.GameRepository;
+
+// Game names for GET /games/suggest, kept in memory so suggestions never touch the database.
+// Names are compared without case or accents: names starting with the query come first, then, for queries
+// of three or more characters, names containing it anywhere, found through an index of their trigrams.
+@Component
+public class GameNameIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private record Entry(String key, GameSuggestionDTO game) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key)
+            .thenComparing(entry -> entry.game().id());
+
+    private record Index(NavigableSet<Entry> byName, ConcurrentHashMap<String, Set<Entry>> byTrigram) {
+
+        Index() {
+            this(new ConcurrentSkipListSet<>(ORDER), new ConcurrentHashMap<>());
+        }
+
+        void add(GameSuggestionDTO game) {
+            Entry entry = new Entry(normalize(game.name()), game);
+            byName.add(entry);
+            for (int i = 0; i + GRAM <= entry.key().length(); i++) {
+                byTrigram.computeIfAbsent(entry.key().substring(i, i + GRAM), gram -> new ConcurrentSkipListSet<>(ORDER))
+                        .add(entry);
+            }
+        }
+    }
+
+    private final GameRepository gameRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Index index = new Index();
+
+    public GameNameIndex(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    public List<GameSuggestionDTO> suggest(String query, int limit) {
+        String key = normalize(query);
+        List<GameSuggestionDTO> suggestions = new ArrayList<>(limit);
+        if (key.isEmpty()) {
+            return suggestions;
+        }
+
+        Index current = index;
+        for (Entry entry : current.byName().tailSet(new Entry(key, new GameSuggestionDTO(Long.MIN_VALUE, null)))) {
+            if (suggestions.size() == limit || !entry.key().startsWith(key)) {
+                break;
+            }
+            suggestions.add(entry.game());
+        }
+
+        if (suggestions.size() == limit || key.length() < GRAM) {
+            return suggestions;
+        }
+
+        // Every name containing the query is listed under each of its trigrams, so the rarest one is enough
+        Set<Entry> candidates = null;
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            Set<Entry> posting = current.byTrigram().get(key.substring(i, i + GRAM));
+            if (posting == null) {
+                return suggestions;
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        for (Entry entry : candidates) {
+            if (suggestions.size() == limit) {
+                break;
+            }
+            if (!entry.key().startsWith(key) && entry.key().contains(key)) {
+                suggestions.add(entry.game());
+            }
+        }
+
+        return suggestions;
+    }
+
+    public void add(Long id, String name) {
+        addAll(List.of(new GameSuggestionDTO(id, name)));
+    }
+
+    // Called once the games are committed, so a rolled back insert is never suggested.
+    // The callback only touches memory, since the committed transaction's resources are still bound then
+    public void addAll(List<GameSuggestionDTO> games) {
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                games.forEach(index::add);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // Holding the lock while loading means a game committed meanwhile is either loaded or added to the new index
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.lock();
+        try {
+            Index rebuilt = new Index();
+            gameRepository.findAllSuggestions().forEach(rebuilt::add);
+            index = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String name) {
+        return ACCENTS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+}
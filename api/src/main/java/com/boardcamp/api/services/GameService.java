@@ -1,36 +1,132 @@
 package com.boardcamp.api.services;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.boardcamp.api.config.MetricsConfig;
+import com.boardcamp.api.dtos.CursorPageDTO;
 import com.boardcamp.api.dtos.GameDTO;
+import com.boardcamp.api.dtos.GameResponseDTO;
+import com.boardcamp.api.dtos.GameSuggestionDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.exceptions.ConstraintViolations;
 import com.boardcamp.api.exceptions.game_exceptions.*;
 import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.GameStockSlotModel;
 import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.GameStockSlotRepository;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class GameService {
 
     final GameRepository gameRepository;
+    final GameStockSlotRepository gameStockSlotRepository;
+    final GameCatalogCache gameCatalogCache;
+    final GameNameIndex gameNameIndex;
+    final CsvImporter csvImporter;
+
+    // Imported games always keep their stock in the games row; sharded stock is only set up by createGame
+    final CsvImporter.Target<GameDTO> importTarget = new CsvImporter.Target<>(
+            GameModel.class,
+            "games",
+            List.of("name", "image", "stockTotal", "pricePerDay"),
+            List.of("name", "image", "stock_total", "price_per_day"),
+            "name",
+            "A game with this name already exists",
+            field -> new GameDTO(field.apply("name"), field.apply("image"),
+                    parseNumber("stockTotal", field.apply("stockTotal")),
+                    parseNumber("pricePerDay", field.apply("pricePerDay"))),
+            game -> { },
+            game -> Arrays.asList(game.getName(), game.getImage(), game.getStockTotal(), game.getPricePerDay()));
 
-    public GameService(GameRepository gameRepository) {
+    public GameService(GameRepository gameRepository, GameStockSlotRepository gameStockSlotRepository,
+            GameCatalogCache gameCatalogCache, GameNameIndex gameNameIndex, CsvImporter csvImporter) {
         this.gameRepository = gameRepository;
+        this.gameStockSlotRepository = gameStockSlotRepository;
+        this.gameCatalogCache = gameCatalogCache;
+        this.gameNameIndex = gameNameIndex;
+        this.csvImporter = csvImporter;
     }
 
-    public List<GameModel> getGames() {
-        return gameRepository.findAll();
+    public List<GameSuggestionDTO> suggestGames(String query, int limit) {
+        return gameNameIndex.suggest(query, limit);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<GameResponseDTO> getGames(Long after, int limit) {
+        List<GameResponseDTO> games = gameRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+        return CursorPageDTO.of(games, limit, GameResponseDTO::id);
+    }
+
+    @Transactional
     public GameModel createGame(GameDTO body) {
 
-        if (gameRepository.existsByName(body.getName())) {
-            throw new GameNameConflictException("A game with this name already exists");
+        GameModel game;
+        try {
+            game = gameRepository.saveAndFlush(new GameModel(body));
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, GameModel.NAME_CONSTRAINT)) {
+                throw new GameNameConflictException("A game with this name already exists");
+            }
+            throw e;
+        }
+
+        if (game.isSharded()) {
+            gameStockSlotRepository.saveAll(splitStock(game));
+        }
+
+        gameCatalogCache.invalidate();
+        gameNameIndex.add(game.getId(), game.getName());
+
+        return game;
+    }
+
+    @Transactional
+    public ImportReportDTO importGames(InputStream csv) {
+        List<GameSuggestionDTO> imported = new ArrayList<>();
+        ImportReportDTO report = csvImporter.importCsv(csv, importTarget, "name",
+                (id, name) -> imported.add(new GameSuggestionDTO(id, name)));
+
+        if (report.imported() > 0) {
+            gameCatalogCache.invalidate();
+            gameNameIndex.addAll(imported);
+        }
+
+        return report;
+    }
+
+    private static int parseNumber(String field, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("O valor " + field + " é obrigatório");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("O valor " + field + " deve ser um número inteiro");
         }
+    }
 
-        GameModel game = new GameModel(body);
+    private List<GameStockSlotModel> splitStock(GameModel game) {
+        int slots = game.getStockSlots();
+        int total = game.getStockTotal();
+
+        List<GameStockSlotModel> stockSlots = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            int stock = total / slots + (slot < total % slots ? 1 : 0);
+            stockSlots.add(new GameStockSlotModel(game, slot, stock));
+        }
 
-        return gameRepository.save(game);
+        return stockSlots;
     }
 
 }
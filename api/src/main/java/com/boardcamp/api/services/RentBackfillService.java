@@ -0,0 +1,232 @@
+package com.boardcamp.api.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.boardcamp.api.config.MetricsConfig;
+import com.boardcamp.api.dtos.GamePriceDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.dtos.ImportReportDTO.RowError;
+import com.boardcamp.api.dtos.RentBackfillDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.RentModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameDailyRevenueRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Loads historical rentals from NDJSON, one rental per line. Valid rows are persisted CHUNK_SIZE at a time:
+// Hibernate sends them as JDBC insert batches with ids from the pooled rents_seq, then the persistence context
+// is flushed and cleared so memory stays flat however long the upload is. Invalid rows are skipped and reported.
+// Customers and games are only referenced, never loaded; ids already seen in the upload are not looked up again.
+// Revenue is summed per game and day and upserted into game_daily_revenue once REVENUE_KEYS pairs pile up.
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class RentBackfillService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int REVENUE_KEYS = 10_000;
+
+    private record Row(long number, RentBackfillDTO rent) {
+    }
+
+    private record RevenueKey(Long gameId, LocalDate date) {
+    }
+
+    final EntityManager entityManager;
+    final CustomerRepository customerRepository;
+    final GameRepository gameRepository;
+    final GameDailyRevenueRepository gameDailyRevenueRepository;
+    final ObjectReader reader;
+    final Validator validator;
+
+    public RentBackfillService(EntityManager entityManager, CustomerRepository customerRepository,
+            GameRepository gameRepository, GameDailyRevenueRepository gameDailyRevenueRepository,
+            ObjectMapper objectMapper, Validator validator) {
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.gameRepository = gameRepository;
+        this.gameDailyRevenueRepository = gameDailyRevenueRepository;
+        this.reader = objectMapper.readerFor(RentBackfillDTO.class);
+        this.validator = validator;
+    }
+
+    @Transactional
+    public ImportReportDTO backfillRents(InputStream ndjson) {
+        Upload upload = new Upload();
+        Report report = upload.report;
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            long number = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                RentBackfillDTO rent;
+                try {
+                    rent = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    report.reject(number, "The line is not a valid rental");
+                    continue;
+                }
+
+                Set<ConstraintViolation<RentBackfillDTO>> violations = validator.validate(rent);
+                if (!violations.isEmpty()) {
+                    report.reject(number, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+
+                chunk.add(new Row(number, rent));
+                if (chunk.size() == CHUNK_SIZE) {
+                    write(chunk, upload);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        write(chunk, upload);
+        writeRevenue(upload.revenue);
+
+        return report.build();
+    }
+
+    private void write(List<Row> chunk, Upload upload) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<Long> customers = upload.customers;
+        Map<Long, Integer> prices = upload.prices;
+        Map<RevenueKey, Long> revenue = upload.revenue;
+        Report report = upload.report;
+
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> gameIds = new HashSet<>();
+        for (Row row : chunk) {
+            if (!customers.contains(row.rent().getCustomerId())) {
+                customerIds.add(row.rent().getCustomerId());
+            }
+            if (!prices.containsKey(row.rent().getGameId())) {
+                gameIds.add(row.rent().getGameId());
+            }
+        }
+        if (!customerIds.isEmpty()) {
+            customers.addAll(customerRepository.findExistingIds(customerIds));
+        }
+        if (!gameIds.isEmpty()) {
+            for (GamePriceDTO game : gameRepository.findPrices(gameIds)) {
+                prices.put(game.id(), game.pricePerDay());
+            }
+        }
+
+        for (Row row : chunk) {
+            RentBackfillDTO body = row.rent();
+            if (!customers.contains(body.getCustomerId())) {
+                report.reject(row.number(), "a customer with this id does not exist");
+                continue;
+            }
+            Integer pricePerDay = prices.get(body.getGameId());
+            if (pricePerDay == null) {
+                report.reject(row.number(), "a game with this id does not exist");
+                continue;
+            }
+
+            int originalPrice = body.getOriginalPrice() != null
+                    ? body.getOriginalPrice()
+                    : body.getDaysRented() * pricePerDay;
+            int delayFee = body.getDelayFee() != null
+                    ? body.getDelayFee()
+                    : (int) Math.max(ChronoUnit.DAYS.between(
+                            body.getRentDate().plusDays(body.getDaysRented()), body.getReturnDate()), 0) * pricePerDay;
+
+            entityManager.persist(new RentModel(null,
+                    entityManager.getReference(CustomerModel.class, body.getCustomerId()),
+                    entityManager.getReference(GameModel.class, body.getGameId()),
+                    body.getRentDate(), body.getDaysRented(), null, body.getReturnDate(), originalPrice, delayFee));
+            report.imported++;
+
+            revenue.merge(new RevenueKey(body.getGameId(), body.getRentDate()), (long) originalPrice, Long::sum);
+            if (delayFee > 0) {
+                revenue.merge(new RevenueKey(body.getGameId(), body.getReturnDate()), (long) delayFee, Long::sum);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        if (revenue.size() >= REVENUE_KEYS) {
+            writeRevenue(revenue);
+        }
+    }
+
+    private void writeRevenue(Map<RevenueKey, Long> revenue) {
+        if (revenue.isEmpty()) {
+            return;
+        }
+
+        List<RevenueKey> keys = new ArrayList<>(revenue.keySet());
+        gameDailyRevenueRepository.addDailyRevenues(
+                keys.stream().map(RevenueKey::gameId).toArray(Long[]::new),
+                keys.stream().map(RevenueKey::date).toArray(LocalDate[]::new),
+                keys.stream().map(revenue::get).toArray(Long[]::new));
+        revenue.clear();
+    }
+
+    private static class Upload {
+        final Report report = new Report();
+        final Set<Long> customers = new HashSet<>();
+        final Map<Long, Integer> prices = new HashMap<>();
+        final Map<RevenueKey, Long> revenue = new HashMap<>();
+    }
+
+    private static class Report {
+        long imported;
+        long rejected;
+        final List<RowError> errors = new ArrayList<>();
+
+        void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < CsvImporter.MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+        }
+
+        ImportReportDTO build() {
+            errors.sort(Comparator.comparingLong(RowError::row));
+            return new ImportReportDTO(imported, rejected, errors);
+        }
+    }
+
+}
@@ -1,13 +1,40 @@
 package com.boardcamp.api.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.boardcamp.api.config.MetricsConfig;
+import com.boardcamp.api.dtos.CursorPageDTO;
+import com.boardcamp.api.dtos.OverdueRentDTO;
+import com.boardcamp.api.dtos.RentCartDTO;
+import com.boardcamp.api.dtos.RentCartItemDTO;
 import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.dtos.RentFilterDTO;
+import com.boardcamp.api.dtos.RentResponseDTO;
+import com.boardcamp.api.dtos.RentReturnResultDTO;
+import com.boardcamp.api.dtos.RentReturnResultDTO.Outcome;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerNotFoundException;
 import com.boardcamp.api.exceptions.game_exceptions.GameNotFoundException;
 import com.boardcamp.api.exceptions.game_exceptions.GameStockException;
@@ -16,39 +43,95 @@ import com.boardcamp.api.exceptions.rent_exceptions.RentClosedException;
 import com.boardcamp.api.exceptions.rent_exceptions.RentNotFoundException;
 import com.boardcamp.api.models.CustomerModel;
 import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.GameSummaryModel;
 import com.boardcamp.api.models.RentModel;
 import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameDailyRevenueRepository;
 import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.GameStockSlotRepository;
+import com.boardcamp.api.repositories.GameSummaryRepository;
 import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.repositories.RentRepository.ReturnedRent;
+import com.boardcamp.api.repositories.RentSpecifications;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class RentService {
 
     final RentRepository rentRepository;
     final GameRepository gameRepository;
     final CustomerRepository customerRepository;
+    final GameStockSlotRepository gameStockSlotRepository;
+    final GameSummaryRepository gameSummaryRepository;
+    final GameCatalogCache gameCatalogCache;
+    final GameDailyRevenueRepository gameDailyRevenueRepository;
+    final ObjectMapper objectMapper;
 
-    public RentService(RentRepository rentRepository, GameRepository gameRepository, CustomerRepository customerRepository) {
+    public RentService(RentRepository rentRepository, GameRepository gameRepository, CustomerRepository customerRepository,
+            GameStockSlotRepository gameStockSlotRepository, GameSummaryRepository gameSummaryRepository,
+            GameCatalogCache gameCatalogCache, GameDailyRevenueRepository gameDailyRevenueRepository,
+            ObjectMapper objectMapper) {
         this.rentRepository = rentRepository;
         this.gameRepository = gameRepository;
         this.customerRepository = customerRepository;
+        this.gameStockSlotRepository = gameStockSlotRepository;
+        this.gameSummaryRepository = gameSummaryRepository;
+        this.gameCatalogCache = gameCatalogCache;
+        this.gameDailyRevenueRepository = gameDailyRevenueRepository;
+        this.objectMapper = objectMapper;
     }
 
-    public List<RentModel> getAllRents(){
-        return rentRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageDTO<RentResponseDTO> getRents(RentFilterDTO filter, Long after, int limit) {
+        List<RentResponseDTO> rents = rentRepository.findResponses(RentSpecifications.matching(filter, after), limit + 1);
+
+        return CursorPageDTO.of(rents, limit, RentResponseDTO::id);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OverdueRentDTO> getOverdueRents(Long after, int limit) {
+        List<OverdueRentDTO> rents = rentRepository.findOverdue(after, Limit.of(limit + 1));
+        return CursorPageDTO.of(rents, limit, OverdueRentDTO::id);
+    }
 
-    public RentModel createRental(RentDTO body) {
+    // Writes one JSON rent per line; rows are projected straight into records, so nothing accumulates in the persistence context
+    @Transactional(readOnly = true)
+    public void exportRents(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper
+                .writerFor(RentResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 
-        GameModel game = gameRepository
-                .findById(body.getGameId())
-                .orElseThrow(() -> new GameNotFoundException("a game with this id does not exist"));
+        try (Stream<RentResponseDTO> rents = rentRepository.streamAllForExport();
+                JsonGenerator generator = objectMapper.createGenerator(out)) {
+
+            generator.setRootValueSeparator(null);
+
+            Iterator<RentResponseDTO> iterator = rents.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+
+    // The game is read through its cached summary, which stock changes never evict
+    @Transactional
+    public RentModel createRental(RentDTO body) {
 
         CustomerModel customer = customerRepository
                 .findById(body.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException("a customer with this id does not exist"));
 
+        GameSummaryModel game = gameSummaryRepository
+                .findById(body.getGameId())
+                .orElseThrow(() -> new GameNotFoundException("a game with this id does not exist"));
+
+        reserveStock(game);
+        gameCatalogCache.invalidate(List.of(game.getId()));
+
         int daysRented = body.getDaysRented();
         int pricePerDay = game.getPricePerDay();
         int originalPrice = daysRented * pricePerDay;
@@ -56,59 +139,203 @@ public class RentService {
         RentModel rent = new RentModel(body);
         rent.setOriginalPrice(originalPrice);
         rent.setCustomer(customer);
-        rent.setGame(game);
-        verifyStock(game);
-        game.setStockTotal(game.getStockTotal() - 1);
+        rent.getGame().setName(game.getName());
+
+        gameDailyRevenueRepository.addRevenue(game.getId(), rent.getRentDate(), originalPrice);
 
         return rentRepository.save(rent);
     }
 
+    // Rents every item of the cart to one customer, or none of them if any game is missing or out of stock
+    @Transactional
+    public List<RentModel> createCart(RentCartDTO body) {
+
+        CustomerModel customer = customerRepository
+                .findById(body.getCustomerId())
+                .orElseThrow(() -> new CustomerNotFoundException("a customer with this id does not exist"));
+
+        SortedMap<Long, Integer> units = new TreeMap<>();
+        for (RentCartItemDTO item : body.getItems()) {
+            units.merge(item.getGameId(), 1, Integer::sum);
+        }
+
+        Map<Long, GameModel> games = new HashMap<>();
+        for (GameModel game : gameRepository.findAllById(units.keySet())) {
+            games.put(game.getId(), game);
+        }
+        if (games.size() < units.size()) {
+            throw new GameNotFoundException("a game with this id does not exist");
+        }
+
+        reserveStock(units, games);
+        gameCatalogCache.invalidate(units.keySet());
+
+        LocalDate rentDate = LocalDate.now();
+        List<RentModel> rents = new ArrayList<>(body.getItems().size());
+        SortedMap<Long, Long> revenue = new TreeMap<>();
+        for (RentCartItemDTO item : body.getItems()) {
+            GameModel game = games.get(item.getGameId());
+            int originalPrice = item.getDaysRented() * game.getPricePerDay();
+
+            rents.add(new RentModel(null, customer, game, rentDate, item.getDaysRented(), null, null, originalPrice, 0));
+            revenue.merge(game.getId(), (long) originalPrice, Long::sum);
+        }
+
+        gameDailyRevenueRepository.addRevenues(
+                revenue.keySet().toArray(Long[]::new), rentDate, revenue.values().toArray(Long[]::new));
+
+        return rentRepository.saveAll(rents);
+    }
+
+    // The same conditional update as returnRentals, so of two concurrent returns only one restocks and books the fee
+    @Transactional
     public RentModel closeRental(Long id) {
-        RentModel rent = rentRepository
-                .findById(id)
-                .orElseThrow(() -> new RentNotFoundException("a rent with this id does not exist"));
+        LocalDate returnDate = LocalDate.now();
 
-        if (rent.getReturnDate() != null) {
+        List<ReturnedRent> returned = rentRepository.returnOpenRentals(new Long[] { id }, returnDate);
+        if (returned.isEmpty()) {
+            if (!rentRepository.existsById(id)) {
+                throw new RentNotFoundException("a rent with this id does not exist");
+            }
             throw new RentClosedException("rent already closed");
         }
 
-        
+        ReturnedRent rent = returned.get(0);
+        restock(returned);
+        if (rent.delayFee() > 0) {
+            gameDailyRevenueRepository.addRevenue(rent.gameId(), returnDate, rent.delayFee());
+        }
+
+        return rentRepository
+                .findById(id)
+                .orElseThrow(() -> new RentNotFoundException("a rent with this id does not exist"));
+    }
+
+    // Closes the open rentals among ids in one conditional update; the others are reported as already returned
+    // or not found, in the order they were requested
+    @Transactional
+    public List<RentReturnResultDTO> returnRentals(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
         LocalDate returnDate = LocalDate.now();
-        rent.setReturnDate(returnDate);
 
-        LocalDate expectedReturnDate = rent.getRentDate().plusDays(rent.getDaysRented());
+        Map<Long, ReturnedRent> returned = new HashMap<>();
+        for (ReturnedRent rent : rentRepository.returnOpenRentals(requested.toArray(Long[]::new), returnDate)) {
+            returned.put(rent.id(), rent);
+        }
 
-       
-        long daysLate = ChronoUnit.DAYS.between(expectedReturnDate, returnDate);
+        Set<Long> existing = returned.size() == requested.size()
+                ? Set.of()
+                : new HashSet<>(rentRepository.findExistingIds(requested));
 
-        if (daysLate > 0) {
-            int pricePerDay = rent.getGame().getPricePerDay();
-            rent.setDelayFee((int) daysLate * pricePerDay);
-        } else {
-            rent.setDelayFee(0);
+        SortedMap<Long, Long> fees = new TreeMap<>();
+        for (ReturnedRent rent : returned.values()) {
+            if (rent.delayFee() > 0) {
+                fees.merge(rent.gameId(), (long) rent.delayFee(), Long::sum);
+            }
         }
 
-        return rentRepository.save(rent);
+        if (!returned.isEmpty()) {
+            restock(returned.values());
+        }
+        if (!fees.isEmpty()) {
+            gameDailyRevenueRepository.addRevenues(
+                    fees.keySet().toArray(Long[]::new), returnDate, fees.values().toArray(Long[]::new));
+        }
+
+        List<RentReturnResultDTO> results = new ArrayList<>(requested.size());
+        for (Long id : requested) {
+            ReturnedRent rent = returned.get(id);
+            if (rent != null) {
+                results.add(new RentReturnResultDTO(id, Outcome.RETURNED, rent.delayFee()));
+            } else {
+                results.add(new RentReturnResultDTO(id, existing.contains(id) ? Outcome.ALREADY_RETURNED : Outcome.NOT_FOUND, null));
+            }
+        }
+        return results;
     }
 
+    @Transactional
     public void deleteRental(Long id) {
 
         RentModel rent = rentRepository
-            .findById(id)
+            .findWithoutAssociationsById(id)
             .orElseThrow(() -> new RentNotFoundException("a rent with this id does not exist"));
 
             if(rent.getReturnDate() == null){
                 throw new RentActiveException("An active rent can not be deleted");
             }
 
+        Long gameId = rent.getGame().getId();
+        gameDailyRevenueRepository.addRevenue(gameId, rent.getRentDate(), -rent.getOriginalPrice());
+        if (rent.getDelayFee() != 0) {
+            gameDailyRevenueRepository.addRevenue(gameId, rent.getReturnDate(), -rent.getDelayFee());
+        }
+
         rentRepository.delete(rent);
 
     }
 
-    private void verifyStock(GameModel game) {
-        if (game.getStockTotal() < 1) {
+    // Unsharded games first, then the slots of sharded ones, each in ascending id order: the order carts reserve
+    // stock in, so returns and carts never wait on each other in a cycle
+    private void restock(Collection<ReturnedRent> rents) {
+        SortedMap<Long, Integer> unsharded = new TreeMap<>();
+        SortedMap<Long, Integer> sharded = new TreeMap<>();
+        Set<Long> gameIds = new HashSet<>();
+        for (ReturnedRent rent : rents) {
+            (rent.sharded() ? sharded : unsharded).merge(rent.gameId(), 1, Integer::sum);
+            gameIds.add(rent.gameId());
+        }
+
+        if (!unsharded.isEmpty()) {
+            gameRepository.restock(unsharded.keySet().toArray(Long[]::new), unsharded.values().toArray(Integer[]::new));
+        }
+        if (!sharded.isEmpty()) {
+            gameStockSlotRepository.restockRandomSlots(
+                    sharded.keySet().toArray(Long[]::new), sharded.values().toArray(Integer[]::new));
+        }
+        gameCatalogCache.invalidate(gameIds);
+    }
+
+    private void reserveStock(GameSummaryModel game) {
+        boolean reserved = game.isSharded()
+                ? reserveSlot(game.getId())
+                : gameRepository.decrementStock(game.getId()) > 0;
+        if (!reserved) {
             throw new GameStockException("this game has no stock to rent");
         }
     }
 
+    // Unsharded games are decremented together in one statement; sharded ones a unit at a time from their slots,
+    // also in id order
+    private void reserveStock(SortedMap<Long, Integer> units, Map<Long, GameModel> games) {
+        SortedMap<Long, Integer> unsharded = new TreeMap<>();
+        units.forEach((gameId, amount) -> {
+            if (!games.get(gameId).isSharded()) {
+                unsharded.put(gameId, amount);
+            }
+        });
+
+        if (!unsharded.isEmpty()
+                && gameRepository.decrementStocks(unsharded.keySet().toArray(Long[]::new),
+                        unsharded.values().toArray(Integer[]::new)) < unsharded.size()) {
+            throw new GameStockException("a game in this cart has no stock to rent");
+        }
+
+        for (Map.Entry<Long, Integer> entry : units.entrySet()) {
+            if (unsharded.containsKey(entry.getKey())) {
+                continue;
+            }
+            for (int i = 0; i < entry.getValue(); i++) {
+                if (!reserveSlot(entry.getKey())) {
+                    throw new GameStockException("a game in this cart has no stock to rent");
+                }
+            }
+        }
+    }
+
+    private boolean reserveSlot(Long gameId) {
+        return gameStockSlotRepository.decrementRandomUnlockedSlot(gameId) > 0
+                || gameStockSlotRepository.decrementAnySlot(gameId) > 0;
+    }
+
 }
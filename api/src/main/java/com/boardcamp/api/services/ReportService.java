@@ -0,0 +1,30 @@
+package com.boardcamp.api.services;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.boardcamp.api.config.MetricsConfig;
+import com.boardcamp.api.dtos.RevenueDTO;
+import com.boardcamp.api.repositories.GameDailyRevenueRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ReportService {
+
+    final GameDailyRevenueRepository gameDailyRevenueRepository;
+
+    public ReportService(GameDailyRevenueRepository gameDailyRevenueRepository) {
+        this.gameDailyRevenueRepository = gameDailyRevenueRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueDTO> getRevenue(LocalDate from, LocalDate to, Long gameId) {
+        return gameDailyRevenueRepository.findRevenue(from, to, gameId);
+    }
+
+}
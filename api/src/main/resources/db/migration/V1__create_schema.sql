@@ -0,0 +1,37 @@
+-- The schema the app had before migrations, exactly as ddl-auto=update created it (constraint names included),
+-- so databases from that version can be baselined here. Everything added since lives in the later versions.
+CREATE SEQUENCE customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE games_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE rents_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE customers (
+    id bigint NOT NULL,
+    cpf varchar(11) NOT NULL,
+    name varchar(150) NOT NULL,
+    phone varchar(30) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE games (
+    id bigint NOT NULL,
+    image varchar(300),
+    name varchar(150) NOT NULL,
+    price_per_day integer NOT NULL,
+    stock_total integer NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE rents (
+    id bigint NOT NULL,
+    days_rented integer NOT NULL,
+    delay_fee integer,
+    original_price integer NOT NULL,
+    rent_date date NOT NULL,
+    return_date date,
+    customer_id bigint,
+    game_id bigint,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE rents ADD CONSTRAINT FKi8eyhl6gqdxv1n2m42hkgefbk FOREIGN KEY (customer_id) REFERENCES customers;
+ALTER TABLE rents ADD CONSTRAINT FKnoemyn8iqvqef5rygo4enuq69 FOREIGN KEY (game_id) REFERENCES games;
@@ -0,0 +1,42 @@
+-- Written to be re-runnable: databases created by ddl-auto=update after V1's schema may already have any of this.
+-- Tables are created together with their indexes only when missing, so those databases keep the ones they have.
+ALTER TABLE games ADD COLUMN IF NOT EXISTS stock_slots integer;
+ALTER TABLE rents ADD COLUMN IF NOT EXISTS expected_return_date date;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'customers_cpf_key') THEN
+        ALTER TABLE customers ADD CONSTRAINT customers_cpf_key UNIQUE (cpf);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'games_name_key') THEN
+        ALTER TABLE games ADD CONSTRAINT games_name_key UNIQUE (name);
+    END IF;
+
+    IF to_regclass('game_stock_slots') IS NULL THEN
+        CREATE SEQUENCE IF NOT EXISTS game_stock_slots_seq START WITH 1 INCREMENT BY 50;
+        CREATE TABLE game_stock_slots (
+            id bigint NOT NULL,
+            game_id bigint NOT NULL,
+            slot integer NOT NULL,
+            stock integer NOT NULL,
+            CONSTRAINT game_stock_slots_pkey PRIMARY KEY (id),
+            CONSTRAINT game_stock_slots_game_id_slot_key UNIQUE (game_id, slot),
+            CONSTRAINT game_stock_slots_game_id_fkey FOREIGN KEY (game_id) REFERENCES games (id) ON DELETE CASCADE
+        );
+        CREATE INDEX game_stock_slots_game_id_idx ON game_stock_slots (game_id);
+    END IF;
+
+    IF to_regclass('game_daily_revenue') IS NULL THEN
+        CREATE TABLE game_daily_revenue (
+            id bigint GENERATED BY DEFAULT AS IDENTITY,
+            game_id bigint NOT NULL,
+            revenue_date date NOT NULL,
+            revenue bigint NOT NULL,
+            CONSTRAINT game_daily_revenue_pkey PRIMARY KEY (id),
+            CONSTRAINT game_daily_revenue_game_id_revenue_date_key UNIQUE (game_id, revenue_date),
+            CONSTRAINT game_daily_revenue_game_id_fkey FOREIGN KEY (game_id) REFERENCES games (id) ON DELETE CASCADE
+        );
+        CREATE INDEX game_daily_revenue_revenue_date_idx ON game_daily_revenue (revenue_date);
+    END IF;
+END
+$$;
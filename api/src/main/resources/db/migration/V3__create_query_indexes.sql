@@ -0,0 +1,9 @@
+-- IF NOT EXISTS because databases created by ddl-auto=update after V1's schema already have these
+CREATE INDEX IF NOT EXISTS rents_customer_id_idx ON rents (customer_id);
+CREATE INDEX IF NOT EXISTS rents_game_id_idx ON rents (game_id);
+CREATE INDEX IF NOT EXISTS rents_rent_date_idx ON rents (rent_date);
+CREATE INDEX IF NOT EXISTS rents_open_idx ON rents (id) WHERE return_date IS NULL;
+CREATE INDEX IF NOT EXISTS rents_overdue_idx ON rents (expected_return_date) WHERE return_date IS NULL;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS customers_name_trgm_idx ON customers USING gin (name gin_trgm_ops);
@@ -0,0 +1,12 @@
+-- Backfills rows written before rents had an expected_return_date column
+UPDATE rents SET expected_return_date = rent_date + days_rented WHERE expected_return_date IS NULL;
+
+-- Seeds the revenue aggregate from the rents written before it existed; afterwards RentService keeps it current
+INSERT INTO game_daily_revenue (game_id, revenue_date, revenue)
+SELECT game_id, revenue_date, sum(amount) FROM (
+    SELECT game_id, rent_date AS revenue_date, original_price AS amount FROM rents
+    UNION ALL
+    SELECT game_id, return_date, delay_fee FROM rents WHERE return_date IS NOT NULL AND delay_fee <> 0
+) amounts
+WHERE NOT EXISTS (SELECT 1 FROM game_daily_revenue)
+GROUP BY game_id, revenue_date;
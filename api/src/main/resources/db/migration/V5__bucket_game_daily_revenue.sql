@@ -0,0 +1,23 @@
+-- Splits each (game, day) revenue row into 16 buckets picked at random on every insert, so concurrent rentals of
+-- one game upsert different rows instead of queueing on a single row lock; readers sum the buckets
+ALTER TABLE game_daily_revenue
+    ADD COLUMN IF NOT EXISTS bucket smallint NOT NULL DEFAULT CAST(floor(random() * 16) AS smallint);
+
+-- The (game_id, revenue_date) key is named by Postgres or by Hibernate depending on which build created the table
+DO $$
+DECLARE
+    key_name text;
+BEGIN
+    FOR key_name IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'game_daily_revenue'::regclass AND contype = 'u'
+            AND conname <> 'game_daily_revenue_game_id_revenue_date_bucket_key'
+    LOOP
+        EXECUTE format('ALTER TABLE game_daily_revenue DROP CONSTRAINT %I', key_name);
+    END LOOP;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'game_daily_revenue_game_id_revenue_date_bucket_key') THEN
+        ALTER TABLE game_daily_revenue
+            ADD CONSTRAINT game_daily_revenue_game_id_revenue_date_bucket_key UNIQUE (game_id, revenue_date, bucket);
+    END IF;
+END
+$$;
@@ -0,0 +1,3 @@
+-- Name searches shorter than a trigram are prefix matches. text_pattern_ops lets LIKE 'ab%' use a btree range
+-- whatever the database collation, and id lets the index return matches already in result order
+CREATE INDEX IF NOT EXISTS customers_name_prefix_idx ON customers (lower(name) text_pattern_ops, id);
@@ -0,0 +1,78 @@
+package com.boardcamp.api.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.AdditionalAnswers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boardcamp.api.dtos.CustomerDTO;
+import com.boardcamp.api.exceptions.customer_exceptions.CustomerInvalidCpfException;
+import com.boardcamp.api.exceptions.customer_exceptions.CustomerInvalidPhoneException;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.services.CustomerService;
+
+// JMH benchmark, run with: mvn -Pjmh verify -Djmh.benchmarks=CustomerValidationBenchmark
+// Covers the phone/cpf checks of createCustomer on the accepted path and on both rejection paths.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerValidationBenchmark {
+
+    private CustomerService customerService;
+
+    private final CustomerDTO valid = new CustomerDTO("Tiago", "1234567890", "12345678901");
+    private final CustomerDTO invalidPhone = new CustomerDTO("Tiago", "abc4567890", "12345678901");
+    private final CustomerDTO invalidCpf = new CustomerDTO("Tiago", "1234567890", "a2345678901");
+
+    @Setup
+    public void setUp() {
+        CustomerRepository customerRepository = mock(CustomerRepository.class, withSettings().stubOnly());
+        when(customerRepository.saveAndFlush(any())).then(AdditionalAnswers.returnsFirstArg());
+
+        customerService = new CustomerService(customerRepository, null);
+    }
+
+    @Benchmark
+    public CustomerModel validCustomer() {
+        return customerService.createCustomer(valid);
+    }
+
+    @Benchmark
+    public Exception invalidPhone() {
+        try {
+            customerService.createCustomer(invalidPhone);
+            throw new IllegalStateException("phone should have been rejected");
+        } catch (CustomerInvalidPhoneException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Exception invalidCpf() {
+        try {
+            customerService.createCustomer(invalidCpf);
+            throw new IllegalStateException("cpf should have been rejected");
+        } catch (CustomerInvalidCpfException e) {
+            return e;
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.boardcamp.api.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boardcamp.api.dtos.GameSuggestionDTO;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.services.GameNameIndex;
+
+// JMH benchmark, run with: mvn -Pjmh verify -Djmh.benchmarks=GameNameIndexBenchmark
+// Suggestions for a prefix typed so far and for a fragment from the middle of a name, over a catalog of games.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameNameIndexBenchmark {
+
+    private static final String[] WORDS = { "Banco", "Imobiliário", "War", "Detetive", "Jogo", "da", "Vida",
+            "Catan", "Ticket", "to", "Ride", "Carcassonne", "Dixit", "Azul", "Pandemic", "Máster" };
+
+    @Param({ "1000", "100000" })
+    private int games;
+
+    private GameNameIndex gameNameIndex;
+
+    @Setup
+    public void setUp() {
+        List<GameSuggestionDTO> catalog = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+            catalog.add(new GameSuggestionDTO((long) i, name));
+        }
+
+        GameRepository gameRepository = mock(GameRepository.class, withSettings().stubOnly());
+        when(gameRepository.findAllSuggestions()).thenReturn(catalog);
+
+        gameNameIndex = new GameNameIndex(gameRepository);
+        gameNameIndex.rebuild();
+    }
+
+    @Benchmark
+    public List<GameSuggestionDTO> suggestByPrefix() {
+        return gameNameIndex.suggest("Carc", 10);
+    }
+
+    @Benchmark
+    public List<GameSuggestionDTO> suggestBySubstring() {
+        return gameNameIndex.suggest("iliar", 10);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.boardcamp.api.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.boardcamp.api.dtos.GameResponseDTO;
+import com.boardcamp.api.dtos.RentResponseDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.RentModel;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+// JMH benchmark, run with: mvn -Pjmh verify -Djmh.benchmarks=JsonSerializationBenchmark
+// Uses the same ObjectMapper defaults as the application, with or without Blackbird, and writes to a discarding
+// stream. serializeRentEntities is the payload GET /rentals sent before it returned RentResponseDTO.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    @Param({ "false", "true" })
+    private boolean blackbird;
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+    private ObjectWriter rentEntitiesWriter;
+    private ObjectWriter rentsWriter;
+    private ObjectWriter gamesWriter;
+    private List<RentModel> rentEntities;
+    private List<RentResponseDTO> rents;
+    private List<GameResponseDTO> games;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        rentEntitiesWriter = objectMapper.writerFor(new TypeReference<List<RentModel>>() {
+        }).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        rentsWriter = objectMapper.writerFor(new TypeReference<List<RentResponseDTO>>() {
+        }).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gamesWriter = objectMapper.writerFor(new TypeReference<List<GameResponseDTO>>() {
+        }).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        games = new ArrayList<>(size);
+        rentEntities = new ArrayList<>(size);
+        rents = new ArrayList<>(size);
+        LocalDate today = LocalDate.now();
+        for (long id = 1; id <= size; id++) {
+            GameModel game = new GameModel(id, "Game " + id, "http://image.com/" + id + ".png", 3, 1500);
+            CustomerModel customer = new CustomerModel(id, "Customer " + id, "1234567890", "12345678901");
+            RentModel rent = new RentModel(id, customer, game, today.minusDays(id % 30), 3, null,
+                    id % 2 == 0 ? today : null, 4500, id % 2 == 0 ? 1500 : 0);
+            games.add(GameResponseDTO.of(game));
+            rentEntities.add(rent);
+            rents.add(RentResponseDTO.of(rent));
+        }
+    }
+
+    @Benchmark
+    public void serializeRentEntities() throws IOException {
+        rentEntitiesWriter.writeValue(out, rentEntities);
+    }
+
+    @Benchmark
+    public void serializeRents() throws IOException {
+        rentsWriter.writeValue(out, rents);
+    }
+
+    @Benchmark
+    public void serializeGames() throws IOException {
+        gamesWriter.writeValue(out, games);
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.boardcamp.api.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.RentModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Closed-loop load test against the test database, run with: mvn test -Dtest=LoadTestBenchmark
+// Tunable with -Dloadtest.concurrency, .duration, .warmup (seconds), .customers, .games, .open-rentals and
+// .mix (weights per operation, e.g. createRental=30,returnRental=20,getGames=30,getCustomer=20).
+// Prints throughput and p50/p95/p99 per endpoint and writes them to target/load-test-result.json.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LoadTestBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5));
+    private static final int CUSTOMERS = Integer.getInteger("loadtest.customers", 1000);
+    private static final int GAMES = Integer.getInteger("loadtest.games", 200);
+    private static final int OPEN_RENTALS = Integer.getInteger("loadtest.open-rentals", 5000);
+    private static final String MIX = System.getProperty("loadtest.mix",
+            "createRental=30,returnRental=20,getGames=30,getCustomer=20");
+
+    private enum Operation {
+        createRental("POST /rentals"),
+        returnRental("POST /rentals/{id}/return"),
+        getGames("GET /games"),
+        getCustomer("GET /customers/{id}");
+
+        final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RentRepository rentRepository;
+
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private List<Long> customerIds;
+    private List<Long> gameIds;
+    private final ConcurrentLinkedQueue<Long> openRentals = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    @AfterEach
+    void cleanUpDatabase() {
+        rentRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
+    }
+
+    @Test
+    void runMixedLoad() throws Exception {
+        seed();
+
+        Operation[] schedule = schedule(MIX);
+        drive(schedule, WARMUP);
+        Map<Operation, Recorder> results = drive(schedule, DURATION);
+
+        report(results);
+    }
+
+    private void seed() {
+        List<CustomerModel> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new CustomerModel(null, "Customer " + i, "1234567890", String.format("%011d", i)));
+        }
+        customerIds = customerRepository.saveAll(customers).stream().map(CustomerModel::getId).toList();
+
+        // Enough stock that rentals never run out during the run
+        List<GameModel> games = new ArrayList<>(GAMES);
+        for (int i = 0; i < GAMES; i++) {
+            games.add(new GameModel(null, "Game " + i, "http://image.com/" + i + ".png", 1_000_000, 1500));
+        }
+        List<GameModel> savedGames = gameRepository.saveAll(games);
+        gameIds = savedGames.stream().map(GameModel::getId).toList();
+
+        List<RentModel> rents = new ArrayList<>(OPEN_RENTALS);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < OPEN_RENTALS; i++) {
+            GameModel game = savedGames.get(random.nextInt(savedGames.size()));
+            rents.add(new RentModel(null, customers.get(random.nextInt(customers.size())), game,
+                    LocalDate.now().minusDays(random.nextInt(10)), 3, null, null, 3 * game.getPricePerDay(), 0));
+        }
+        rentRepository.saveAll(rents).forEach(rent -> openRentals.add(rent.getId()));
+    }
+
+    private Map<Operation, Recorder> drive(Operation[] schedule, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<Map<Operation, Recorder>>> workers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                workers.add(executor.submit(() -> {
+                    Map<Operation, Recorder> recorders = new LinkedHashMap<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = schedule[random.nextInt(schedule.length)];
+                        if (operation == Operation.returnRental && openRentals.isEmpty()) {
+                            operation = Operation.createRental;
+                        }
+                        long start = System.nanoTime();
+                        boolean ok = execute(operation, random);
+                        recorders.computeIfAbsent(operation, key -> new Recorder()).record(System.nanoTime() - start, ok);
+                    }
+                    return recorders;
+                }));
+            }
+
+            Map<Operation, Recorder> merged = new LinkedHashMap<>();
+            for (Operation operation : Operation.values()) {
+                merged.put(operation, new Recorder());
+            }
+            for (Future<Map<Operation, Recorder>> worker : workers) {
+                worker.get().forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+            }
+            merged.values().forEach(recorder -> recorder.seconds = duration.toNanos() / 1e9);
+            return merged;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private boolean execute(Operation operation, ThreadLocalRandom random) {
+        ResponseEntity<String> response = switch (operation) {
+            case createRental -> {
+                RentDTO body = new RentDTO(pick(customerIds, random), pick(gameIds, random), 1 + random.nextInt(7));
+                ResponseEntity<RentModel> created = restTemplate.exchange(
+                        "/rentals", HttpMethod.POST, new HttpEntity<>(body), RentModel.class);
+                if (created.getStatusCode().is2xxSuccessful()) {
+                    openRentals.add(created.getBody().getId());
+                }
+                yield ResponseEntity.status(created.getStatusCode()).build();
+            }
+            case returnRental -> {
+                Long id = openRentals.poll();
+                if (id == null) {
+                    yield null;
+                }
+                yield restTemplate.exchange("/rentals/" + id + "/return", HttpMethod.POST, null, String.class);
+            }
+            case getGames -> restTemplate.exchange("/games", HttpMethod.GET, null, String.class);
+            case getCustomer -> restTemplate.exchange(
+                    "/customers/" + pick(customerIds, random), HttpMethod.GET, null, String.class);
+        };
+        return response != null && response.getStatusCode().is2xxSuccessful();
+    }
+
+    private static Long pick(List<Long> ids, ThreadLocalRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static Operation[] schedule(String mix) {
+        List<Operation> schedule = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.trim().split("=");
+            Operation operation = Operation.valueOf(weight[0].trim());
+            for (int i = 0; i < Integer.parseInt(weight[1].trim()); i++) {
+                schedule.add(operation);
+            }
+        }
+        return schedule.toArray(Operation[]::new);
+    }
+
+    private void report(Map<Operation, Recorder> results) throws IOException {
+        System.out.printf("load test, %d workers, %ds, mix %s%n", CONCURRENCY, DURATION.toSeconds(), MIX);
+        System.out.printf("  %-26s %10s %8s %10s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+
+        Map<String, Map<String, Object>> json = new LinkedHashMap<>();
+        double total = 0;
+        for (Map.Entry<Operation, Recorder> result : results.entrySet()) {
+            Recorder recorder = result.getValue();
+            if (recorder.count == 0) {
+                continue;
+            }
+            total += recorder.throughput();
+            System.out.printf("  %-26s %10d %8d %10.1f %9.2f %9.2f %9.2f%n",
+                    result.getKey().endpoint, recorder.count, recorder.errors, recorder.throughput(),
+                    recorder.percentile(50), recorder.percentile(95), recorder.percentile(99));
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", recorder.count);
+            row.put("errors", recorder.errors);
+            row.put("throughput", recorder.throughput());
+            row.put("p50Ms", recorder.percentile(50));
+            row.put("p95Ms", recorder.percentile(95));
+            row.put("p99Ms", recorder.percentile(99));
+            json.put(result.getKey().endpoint, row);
+        }
+        System.out.printf("  %-26s %30.1f%n", "total", total);
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("concurrency", CONCURRENCY);
+        document.put("durationSeconds", DURATION.toSeconds());
+        document.put("mix", MIX);
+        document.put("endpoints", json);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(new File("target/load-test-result.json"), document);
+    }
+
+    // Latencies of one worker, or of all workers once merged; only touched by one thread at a time
+    private static class Recorder {
+        long[] latencies = new long[1024];
+        int count;
+        int errors;
+        double seconds;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+            Arrays.sort(latencies, 0, count);
+        }
+
+        double throughput() {
+            return count / seconds;
+        }
+
+        double percentile(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+}
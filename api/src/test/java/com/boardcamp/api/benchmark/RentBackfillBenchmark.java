@@ -0,0 +1,143 @@
+package com.boardcamp.api.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.RentModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+
+// Throughput of POST /rentals/backfill against saving the same rentals one RentRepository.save at a time, run with:
+// mvn test -Dtest=RentBackfillBenchmark [-Dbackfill.rows=100000 -Dbackfill.save-rows=5000 -Dbackfill.warmup-rows=50000]
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RentBackfillBenchmark {
+
+    private static final int ROWS = Integer.getInteger("backfill.rows", 100_000);
+    private static final int SAVE_ROWS = Integer.getInteger("backfill.save-rows", 5_000);
+    private static final int WARMUP_ROWS = Integer.getInteger("backfill.warmup-rows", 50_000);
+    private static final int CUSTOMERS = 1000;
+    private static final int GAMES = 200;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RentRepository rentRepository;
+
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private List<CustomerModel> customers;
+    private List<GameModel> games;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUpDatabase() {
+        rentRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
+    }
+
+    @Test
+    void compareBackfillWithSave() {
+        seed();
+
+        // Both paths run long enough to be JIT-compiled before anything is timed
+        for (int i = 0; i < SAVE_ROWS / 10; i++) {
+            rentRepository.save(rent());
+        }
+        backfill(ndjson(WARMUP_ROWS));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SAVE_ROWS; i++) {
+            rentRepository.save(rent());
+        }
+        double saveSeconds = (System.nanoTime() - start) / 1e9;
+
+        String ndjson = ndjson(ROWS);
+        start = System.nanoTime();
+        ImportReportDTO report = backfill(ndjson);
+        double backfillSeconds = (System.nanoTime() - start) / 1e9;
+
+        if (report.imported() != ROWS) {
+            throw new IllegalStateException("backfill rejected " + report.rejected() + " rows: " + report.errors());
+        }
+
+        System.out.printf("  %-30s %10s %10s %12s%n", "", "rows", "seconds", "rows/s");
+        System.out.printf("  %-30s %10d %10.2f %12.0f%n", "RentRepository.save", SAVE_ROWS, saveSeconds,
+                SAVE_ROWS / saveSeconds);
+        System.out.printf("  %-30s %10d %10.2f %12.0f%n", "POST /rentals/backfill", ROWS, backfillSeconds,
+                ROWS / backfillSeconds);
+    }
+
+    private void seed() {
+        List<CustomerModel> newCustomers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            newCustomers.add(new CustomerModel(null, "Customer " + i, "1234567890", String.format("%011d", i)));
+        }
+        customers = customerRepository.saveAll(newCustomers);
+
+        List<GameModel> newGames = new ArrayList<>(GAMES);
+        for (int i = 0; i < GAMES; i++) {
+            newGames.add(new GameModel(null, "Game " + i, "http://image.com/" + i + ".png", 10, 1500));
+        }
+        games = gameRepository.saveAll(newGames);
+    }
+
+    private RentModel rent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate rentDate = LocalDate.now().minusDays(30 + random.nextInt(3650));
+        return new RentModel(null, customers.get(random.nextInt(CUSTOMERS)), games.get(random.nextInt(GAMES)),
+                rentDate, 3, null, rentDate.plusDays(random.nextInt(7)), 4500, 0);
+    }
+
+    private String ndjson(int rows) {
+        StringBuilder ndjson = new StringBuilder(rows * 120);
+        for (int i = 0; i < rows; i++) {
+            RentModel rent = rent();
+            ndjson.append("{\"customerId\":").append(rent.getCustomer().getId())
+                    .append(",\"gameId\":").append(rent.getGame().getId())
+                    .append(",\"rentDate\":\"").append(rent.getRentDate())
+                    .append("\",\"daysRented\":").append(rent.getDaysRented())
+                    .append(",\"returnDate\":\"").append(rent.getReturnDate()).append("\"}\n");
+        }
+        return ndjson.toString();
+    }
+
+    private ImportReportDTO backfill(String ndjson) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        ResponseEntity<ImportReportDTO> response = restTemplate.exchange(
+                "/rentals/backfill", HttpMethod.POST, new HttpEntity<>(ndjson, headers), ImportReportDTO.class);
+        return response.getBody();
+    }
+
+}
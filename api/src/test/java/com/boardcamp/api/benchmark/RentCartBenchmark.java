@@ -0,0 +1,113 @@
+package com.boardcamp.api.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.boardcamp.api.dtos.RentCartDTO;
+import com.boardcamp.api.dtos.RentCartItemDTO;
+import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+
+// Latency of renting N games through one POST /rentals/cart against N POST /rentals calls, run with:
+// mvn test -Dtest=RentCartBenchmark [-Dcart.size=4 -Dcart.iterations=500 -Dcart.warmup=100]
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RentCartBenchmark {
+
+    private static final int SIZE = Integer.getInteger("cart.size", 4);
+    private static final int ITERATIONS = Integer.getInteger("cart.iterations", 500);
+    private static final int WARMUP = Integer.getInteger("cart.warmup", 100);
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RentRepository rentRepository;
+
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUpDatabase() {
+        rentRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
+    }
+
+    @Test
+    void compareCartWithSeparateCalls() {
+        Long customerId = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901")).getId();
+        List<Long> gameIds = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            gameIds.add(gameRepository.save(new GameModel(null, "Game " + i, "imagem", 1_000_000, 1500)).getId());
+        }
+
+        RentCartDTO cart = new RentCartDTO(customerId,
+                gameIds.stream().map(gameId -> new RentCartItemDTO(gameId, 3)).toList());
+        Runnable cartCall = () -> post("/rentals/cart", cart);
+        Runnable separateCalls = () -> gameIds.forEach(gameId -> post("/rentals", new RentDTO(customerId, gameId, 3)));
+
+        run(cartCall, WARMUP);
+        run(separateCalls, WARMUP);
+        long[] cartLatencies = run(cartCall, ITERATIONS);
+        long[] separateLatencies = run(separateCalls, ITERATIONS);
+
+        System.out.printf("renting %d games, %d iterations%n", SIZE, ITERATIONS);
+        System.out.printf("  %-26s %9s %9s %9s%n", "", "p50 ms", "p95 ms", "p99 ms");
+        print("POST /rentals/cart", cartLatencies);
+        print(SIZE + " x POST /rentals", separateLatencies);
+    }
+
+    private void post(String url, Object body) {
+        if (!restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(body), String.class)
+                .getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("POST " + url + " failed");
+        }
+    }
+
+    private static long[] run(Runnable call, int iterations) {
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            call.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void print(String label, long[] latencies) {
+        System.out.printf("  %-26s %9.2f %9.2f %9.2f%n", label,
+                percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+}
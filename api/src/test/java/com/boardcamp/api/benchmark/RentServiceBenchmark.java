@@ -0,0 +1,82 @@
+package com.boardcamp.api.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.AdditionalAnswers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameSummaryModel;
+import com.boardcamp.api.models.RentModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameDailyRevenueRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.GameStockSlotRepository;
+import com.boardcamp.api.repositories.GameSummaryRepository;
+import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+import com.boardcamp.api.services.RentService;
+
+// JMH benchmark, run with: mvn -Pjmh verify -Djmh.benchmarks=RentServiceBenchmark
+// Repositories are stub-only mocks, so the numbers are the service's own cost plus the mock dispatch.
+// closeRental is not measured: its delay fee is computed in SQL by RentRepository.returnOpenRentals, so with
+// mocks there is nothing left of it but the dispatch.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentServiceBenchmark {
+
+    private RentService rentService;
+    private RentDTO rentDTO;
+
+    @Setup
+    public void setUp() {
+        CustomerModel customer = new CustomerModel(1L, "Tiago", "1234567890", "12345678901");
+        GameSummaryModel summary = new GameSummaryModel(1L, "Banco Imobiliário", 1500, null);
+
+        CustomerRepository customerRepository = stub(CustomerRepository.class);
+        GameRepository gameRepository = stub(GameRepository.class);
+        RentRepository rentRepository = stub(RentRepository.class);
+        GameSummaryRepository gameSummaryRepository = stub(GameSummaryRepository.class);
+
+        when(customerRepository.findById(anyLong())).thenReturn(Optional.of(customer));
+        when(gameRepository.decrementStock(anyLong())).thenReturn(1);
+        when(gameSummaryRepository.findById(anyLong())).thenReturn(Optional.of(summary));
+        when(rentRepository.save(any())).then(AdditionalAnswers.returnsFirstArg());
+
+        rentService = new RentService(rentRepository, gameRepository, customerRepository,
+                stub(GameStockSlotRepository.class), gameSummaryRepository, stub(GameCatalogCache.class),
+                stub(GameDailyRevenueRepository.class), null);
+        rentDTO = new RentDTO(1L, 1L, 3);
+    }
+
+    @Benchmark
+    public RentModel createRental() {
+        return rentService.createRental(rentDTO);
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+}
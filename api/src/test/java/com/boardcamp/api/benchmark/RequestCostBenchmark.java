@@ -0,0 +1,127 @@
+package com.boardcamp.api.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.dtos.RentResponseDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+import com.sun.management.OperatingSystemMXBean;
+import com.sun.management.ThreadMXBean;
+
+// CPU time and heap allocation per request for the main read and write endpoints, run with:
+// mvn test -Dtest=RequestCostBenchmark [-Dcost.iterations=5000 -Dcost.warmup=2000]
+// Both are process-wide and requests run one at a time, so the figures include the TestRestTemplate client's share.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RequestCostBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("cost.iterations", 5000);
+    private static final int WARMUP = Integer.getInteger("cost.warmup", 2000);
+    private static final int CUSTOMERS = 100;
+
+    private static final OperatingSystemMXBean OS =
+            (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RentRepository rentRepository;
+
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUpDatabase() {
+        rentRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
+    }
+
+    @Test
+    void measureRequestCost() {
+        List<CustomerModel> newCustomers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            newCustomers.add(new CustomerModel(null, "Customer " + i, "1234567890", String.format("%011d", i)));
+        }
+        List<CustomerModel> customers = customerRepository.saveAll(newCustomers);
+        Long customerId = customers.get(0).getId();
+        Long gameId = gameRepository.save(new GameModel(null, "Banco Imobiliário", "imagem", 1_000_000, 1500)).getId();
+        for (int i = 0; i < 100; i++) {
+            post("/rentals", new RentDTO(customers.get(i).getId(), gameId, 3), RentResponseDTO.class);
+        }
+
+        Runnable listRents = () -> get("/rentals?limit=20");
+        Runnable customerById = () -> get("/customers/" + customerId);
+        Runnable customerByCpf = () -> get("/customers?cpf=00000000042");
+        Runnable rentAndReturn = () -> {
+            RentResponseDTO rent = post("/rentals", new RentDTO(customerId, gameId, 3), RentResponseDTO.class);
+            post("/rentals/" + rent.id() + "/return", null, RentResponseDTO.class);
+        };
+
+        System.out.printf("%d requests per endpoint after %d warm-up requests%n", ITERATIONS, WARMUP);
+        System.out.printf("  %-36s %12s %14s%n", "", "CPU us/req", "alloc KB/req");
+        measure("GET /rentals?limit=20", listRents);
+        measure("GET /customers/{id}", customerById);
+        measure("GET /customers?cpf=", customerByCpf);
+        measure("POST /rentals + /rentals/{id}/return", rentAndReturn);
+    }
+
+    private static void measure(String label, Runnable call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+
+        long cpu = OS.getProcessCpuTime();
+        long allocated = THREADS.getTotalThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.run();
+        }
+        double cpuMicros = (OS.getProcessCpuTime() - cpu) / 1e3 / ITERATIONS;
+        double allocatedKb = (THREADS.getTotalThreadAllocatedBytes() - allocated) / 1024.0 / ITERATIONS;
+
+        System.out.printf("  %-36s %12.1f %14.1f%n", label, cpuMicros, allocatedKb);
+    }
+
+    private void get(String url) {
+        if (!restTemplate.getForEntity(url, String.class).getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("GET " + url + " failed");
+        }
+    }
+
+    private <T> T post(String url, Object body, Class<T> type) {
+        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(body), type);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("POST " + url + " failed");
+        }
+        return response.getBody();
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.boardcamp.api.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.boardcamp.api.dtos.GameDTO;
+import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+
+// Not picked up by the default surefire includes, run with: mvn test -Dtest=StockContentionBenchmark
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class StockContentionBenchmark {
+
+    private static final int RENTERS = 64;
+    private static final int RENTALS = 4000;
+    private static final int SLOTS = 16;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RentRepository rentRepository;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUpDatabase() {
+        rentRepository.deleteAll();
+        customerRepository.deleteAll();
+        gameRepository.deleteAll();
+    }
+
+    @Test
+    void compareSingleRowAndShardedStock() throws Exception {
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+
+        // aquecimento
+        run(customer, new GameDTO("warmup", "imagem", RENTALS / 4, 3000));
+
+        double single = run(customer, new GameDTO("single", "imagem", RENTALS, 3000));
+        double sharded = run(customer, new GameDTO("sharded", "imagem", RENTALS, 3000, SLOTS));
+
+        System.out.printf("stock contention, %d renters, %d rentals%n", RENTERS, RENTALS);
+        System.out.printf("  single row        : %10.1f rentals/s%n", single);
+        System.out.printf("  sharded (%2d slots): %10.1f rentals/s%n", SLOTS, sharded);
+    }
+
+    private double run(CustomerModel customer, GameDTO gameDTO) throws Exception {
+        GameModel game = restTemplate
+                .exchange("/games", HttpMethod.POST, new HttpEntity<>(gameDTO), GameModel.class)
+                .getBody();
+
+        HttpEntity<RentDTO> body = new HttpEntity<>(new RentDTO(customer.getId(), game.getId(), 3));
+        List<Callable<HttpStatus>> calls = new ArrayList<>();
+        for (int i = 0; i < gameDTO.getStockTotal(); i++) {
+            calls.add(() -> HttpStatus.valueOf(restTemplate
+                    .exchange("/rentals", HttpMethod.POST, body, String.class)
+                    .getStatusCode().value()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(RENTERS);
+        long start = System.nanoTime();
+        try {
+            for (Future<HttpStatus> result : executor.invokeAll(calls)) {
+                assertEquals(HttpStatus.OK, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(0, gameRepository.findById(game.getId()).get().getStockTotal());
+        return gameDTO.getStockTotal() / seconds;
+    }
+
+}
@@ -4,8 +4,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,17 +21,24 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.boardcamp.api.dtos.CustomerDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.dtos.ImportReportDTO.RowError;
 import com.boardcamp.api.models.CustomerModel;
 import com.boardcamp.api.repositories.CustomerRepository;
 import com.boardcamp.api.repositories.GameRepository;
 import com.boardcamp.api.repositories.RentRepository;
 
+import jakarta.persistence.EntityManagerFactory;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
 // @EnableJpaRepositories("com.boardcamp.api.repositories")
@@ -42,6 +56,9 @@ class CustomerIntegrationTest {
     @Autowired
     private RentRepository rentRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     @AfterEach
     void cleanUpDatabase() {
@@ -166,6 +183,49 @@ class CustomerIntegrationTest {
 
     }
 
+    @Test
+    void givenCustomers_whenSearchingByCpfOrName_thenReturnsMatchingCustomers() {
+
+        customerRepository.save(new CustomerModel(null, "Ana Tiago", "1234567890", "12345678901"));
+        customerRepository.save(new CustomerModel(null, "Tiago Carbone", "1234567890", "12345678902"));
+        customerRepository.save(new CustomerModel(null, "tiago_souza", "1234567890", "12345678903"));
+        customerRepository.save(new CustomerModel(null, "Carlos", "1234567890", "12345678904"));
+
+        assertEquals(List.of("Tiago Carbone"), searchCustomerNames("/customers?cpf=12345678902"));
+        assertEquals(List.of(), searchCustomerNames("/customers?cpf=99999999999"));
+
+        assertEquals(List.of("Tiago Carbone", "tiago_souza", "Ana Tiago"), searchCustomerNames("/customers?name=TIAGO"));
+        assertEquals(List.of("Tiago Carbone", "tiago_souza"), searchCustomerNames("/customers?name=tiago&limit=2"));
+        assertEquals(List.of("tiago_souza"), searchCustomerNames("/customers?name=o_s"));
+        assertEquals(List.of(), searchCustomerNames("/customers?name=%25"));
+    }
+
+    @Test
+    void givenShortName_whenSearchingCustomers_thenMatchesNamePrefix() {
+
+        customerRepository.save(new CustomerModel(null, "Ana Tiago", "1234567890", "12345678901"));
+        customerRepository.save(new CustomerModel(null, "tiago_souza", "1234567890", "12345678903"));
+        customerRepository.save(new CustomerModel(null, "Tiago Carbone", "1234567890", "12345678902"));
+
+        assertEquals(List.of("Tiago Carbone", "tiago_souza"), searchCustomerNames("/customers?name=TI"));
+        assertEquals(List.of("Tiago Carbone"), searchCustomerNames("/customers?name=t&limit=1"));
+        assertEquals(List.of("Ana Tiago"), searchCustomerNames("/customers?name=a"));
+        assertEquals(List.of(), searchCustomerNames("/customers?name=ag"));
+        assertEquals(List.of("Ana Tiago"), searchCustomerNames("/customers?name=iag&limit=1"));
+    }
+
+    private List<String> searchCustomerNames(String url) {
+        ResponseEntity<List<CustomerModel>> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<CustomerModel>>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody().stream().map(CustomerModel::getName).toList();
+    }
+
     @Test
     void givenCustomerId_whenGettingCustomer_thenReturnsCustomer() {
 
@@ -196,6 +256,64 @@ class CustomerIntegrationTest {
         assertEquals(dto.getCpf(), returned.getCpf());
     }
 
+    @Test
+    void givenConcurrentSignupsWithSameCpf_whenCreatingCustomers_thenCreatesOnlyOne() throws Exception {
+
+        int requests = 50;
+        List<Callable<HttpStatusCode>> calls = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            calls.add(() -> restTemplate.exchange(
+                    "/customers",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new CustomerDTO("Tiago", "1234567890", "12345678901")),
+                    String.class).getStatusCode());
+        }
+
+        int created = 0;
+        int conflicts = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (Future<HttpStatusCode> result : executor.invokeAll(calls)) {
+                if (result.get() == HttpStatus.CREATED) {
+                    created++;
+                } else if (result.get() == HttpStatus.CONFLICT) {
+                    conflicts++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, created);
+        assertEquals(requests - 1, conflicts);
+        assertEquals(1, customerRepository.count());
+    }
+
+    @Test
+    void givenCachedCustomer_whenGettingCustomer_thenSkipsDatabase() {
+
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            ResponseEntity<CustomerModel> response = restTemplate.exchange(
+                    "/customers/" + customer.getId(),
+                    HttpMethod.GET,
+                    null,
+                    CustomerModel.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("Tiago", response.getBody().getName());
+            assertEquals(1, statistics.getSecondLevelCacheHitCount());
+            assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     void givenWrongCustomerId_whenGettingCustomer_thenThrowsError() {
         CustomerDTO dto = new CustomerDTO("Tiago", "1234567889", "12345678901");
@@ -220,5 +338,80 @@ class CustomerIntegrationTest {
 
     }
 
+    @Test
+    void givenCsvWithInvalidAndDuplicateRows_whenImportingCustomers_thenImportsValidRowsAndReportsTheRest() {
+
+        customerRepository.save(new CustomerModel(null, "Existing", "1234567890", "00000000000"));
+
+        String csv = """
+                cpf,name,phone
+                12345678901,"Silva, Tiago",1234567890
+                12345678902,Ana,abc4567890
+                00000000000,Bruno,1234567890
+                12345678901,Carla,1234567890
+                12345678903,,1234567890
+                12345678904,\"""Dani\""",12345678901
+                """;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+
+        ResponseEntity<ImportReportDTO> response = restTemplate.exchange(
+                "/customers/import",
+                HttpMethod.POST,
+                new HttpEntity<>(csv, headers),
+                ImportReportDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ImportReportDTO report = response.getBody();
+        assertEquals(2, report.imported());
+        assertEquals(4, report.rejected());
+        assertEquals(List.of(2L, 3L, 4L, 5L), report.errors().stream().map(RowError::row).toList());
+        assertEquals("O telefone deve conter apenas números", report.errors().get(0).message());
+        assertEquals("A customer with this cpf already exists", report.errors().get(1).message());
+        assertEquals("A customer with this cpf already exists", report.errors().get(2).message());
+        assertTrue(report.errors().get(3).message().startsWith("name: "));
+
+        assertEquals(3, customerRepository.count());
+        List<String> names = customerRepository.findAll().stream().map(CustomerModel::getName).sorted().toList();
+        assertEquals(List.of("\"Dani\"", "Existing", "Silva, Tiago"), names);
+
+        CustomerModel created = customerRepository.save(new CustomerModel(null, "After", "1234567890", "12345678909"));
+        assertEquals(4, customerRepository.count());
+        assertNotNull(created.getId());
+    }
+
+    @Test
+    void givenMoreConcurrentImportsThanConnections_whenImportingCustomers_thenImportsEveryFile() throws Exception {
+
+        int imports = 32;
+        int rows = 100;
+        List<Callable<ImportReportDTO>> calls = new ArrayList<>();
+        for (int i = 0; i < imports; i++) {
+            StringBuilder csv = new StringBuilder("cpf,name,phone\n");
+            for (int j = 0; j < rows; j++) {
+                csv.append(String.format("%011d", i * rows + j)).append(",Cliente ").append(j).append(",1234567890\n");
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType("text/csv"));
+            HttpEntity<String> body = new HttpEntity<>(csv.toString(), headers);
+            calls.add(() -> restTemplate.exchange(
+                    "/customers/import",
+                    HttpMethod.POST,
+                    body,
+                    ImportReportDTO.class).getBody());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(imports);
+        try {
+            for (Future<ImportReportDTO> result : executor.invokeAll(calls)) {
+                assertEquals(rows, result.get().imported());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(imports * rows, customerRepository.count());
+    }
 
 }
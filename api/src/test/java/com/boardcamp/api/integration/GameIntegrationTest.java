@@ -2,6 +2,7 @@ package com.boardcamp.api.integration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
@@ -15,18 +16,26 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.boardcamp.api.dtos.CursorPageDTO;
 import com.boardcamp.api.dtos.CustomerDTO;
 import com.boardcamp.api.dtos.GameDTO;
+import com.boardcamp.api.dtos.GameSuggestionDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.dtos.RentDTO;
 import com.boardcamp.api.models.CustomerModel;
 import com.boardcamp.api.models.GameModel;
 import com.boardcamp.api.repositories.CustomerRepository;
 import com.boardcamp.api.repositories.GameRepository;
 import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+import com.boardcamp.api.services.GameNameIndex;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -44,12 +53,20 @@ class GameIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @Autowired
+    private GameNameIndex gameNameIndex;
+
     @BeforeEach
     @AfterEach
     void cleanUpDatabase() {
         rentRepository.deleteAll();
         customerRepository.deleteAll();
         gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
+        gameNameIndex.rebuild();
     }
 
     @Test
@@ -116,6 +133,130 @@ class GameIntegrationTest {
 
     }
 
+    @Test
+    void givenMoreGamesThanLimit_whenGettingGames_thenPaginatesByCursor() {
+
+        for (int i = 1; i <= 3; i++) {
+            gameRepository.save(new GameModel(null, "jogo " + i, "imagem", 3, 3000));
+        }
+
+        ResponseEntity<List<GameModel>> firstPage = restTemplate.exchange(
+                "/games?limit=2",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<GameModel>>() {
+                });
+
+        String cursor = firstPage.getHeaders().getFirst(CursorPageDTO.NEXT_CURSOR_HEADER);
+
+        ResponseEntity<List<GameModel>> secondPage = restTemplate.exchange(
+                "/games?limit=2&after=" + cursor,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<GameModel>>() {
+                });
+
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertEquals(2, firstPage.getBody().size());
+        assertEquals(firstPage.getBody().get(1).getId().toString(), cursor);
+        assertEquals(1, secondPage.getBody().size());
+        assertEquals("jogo 3", secondPage.getBody().get(0).getName());
+        assertNull(secondPage.getHeaders().getFirst(CursorPageDTO.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void givenLimitOutOfRange_whenGettingGames_thenThrowsError() {
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/games?limit=0",
+                HttpMethod.GET,
+                null,
+                String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void givenShardedGame_whenCreatingGame_thenReportsTotalStock() {
+
+        GameDTO dto1 = new GameDTO("jogo 1", "imagem", 10, 3000, 4);
+        HttpEntity<GameDTO> body1 = new HttpEntity<>(dto1);
+
+        ResponseEntity<GameModel> postResponse1 = restTemplate.exchange(
+                "/games",
+                HttpMethod.POST,
+                body1,
+                GameModel.class);
+
+        ResponseEntity<List<GameModel>> getResponse = restTemplate.exchange(
+                "/games",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<GameModel>>() {
+                });
+
+        assertEquals(HttpStatus.CREATED, postResponse1.getStatusCode());
+        assertEquals(10, postResponse1.getBody().getStockTotal());
+        assertEquals(10, getResponse.getBody().get(0).getStockTotal());
+    }
+
+    @Test
+    void givenUnchangedCatalog_whenPollingGames_thenReturnsNotModified() {
+
+        gameRepository.save(new GameModel(null, "jogo 1", "imagem", 3, 3000));
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+
+        ResponseEntity<String> firstResponse = restTemplate.exchange("/games", HttpMethod.GET, null, String.class);
+        String etag = firstResponse.getHeaders().getETag();
+
+        ResponseEntity<String> unchangedResponse = pollGames(etag);
+
+        GameModel created = restTemplate.exchange("/games", HttpMethod.POST,
+                new HttpEntity<>(new GameDTO("jogo 2", "imagem", 3, 3000)), GameModel.class).getBody();
+        ResponseEntity<String> afterCreateResponse = pollGames(etag);
+        String createEtag = afterCreateResponse.getHeaders().getETag();
+
+        restTemplate.exchange("/rentals", HttpMethod.POST,
+                new HttpEntity<>(new RentDTO(customer.getId(), created.getId(), 3)), String.class);
+        ResponseEntity<String> afterRentResponse = pollGames(createEtag);
+
+        assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+        assertNotNull(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchangedResponse.getStatusCode());
+        assertEquals(HttpStatus.OK, afterCreateResponse.getStatusCode());
+        assertTrue(afterCreateResponse.getBody().contains("jogo 2"));
+        assertEquals(HttpStatus.OK, afterRentResponse.getStatusCode());
+        assertTrue(afterRentResponse.getBody().contains("\"stockTotal\":2"));
+    }
+
+    @Test
+    void givenWeakListedOrWildcardEtag_whenPollingGames_thenReturnsNotModified() {
+
+        gameRepository.save(new GameModel(null, "jogo 1", "imagem", 3, 3000));
+
+        ResponseEntity<String> firstResponse = restTemplate.exchange("/games", HttpMethod.GET, null, String.class);
+        String etag = firstResponse.getHeaders().getETag();
+
+        ResponseEntity<String> weakResponse = pollGames("W/" + etag);
+        ResponseEntity<String> listResponse = pollGames("\"outra\", " + etag);
+        ResponseEntity<String> wildcardResponse = pollGames("*");
+        ResponseEntity<String> otherResponse = pollGames("\"outra\"");
+
+        assertEquals(1, firstResponse.getHeaders().get(HttpHeaders.ETAG).size());
+        assertEquals(HttpStatus.NOT_MODIFIED, weakResponse.getStatusCode());
+        assertEquals(List.of(etag), weakResponse.getHeaders().get(HttpHeaders.ETAG));
+        assertEquals(HttpStatus.NOT_MODIFIED, listResponse.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, wildcardResponse.getStatusCode());
+        assertEquals(HttpStatus.OK, otherResponse.getStatusCode());
+    }
+
+    private ResponseEntity<String> pollGames(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+
+        return restTemplate.exchange("/games", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
     @Test
     void givenExistingGame_whenCreatingGame_thenThrowsError(){
      
@@ -143,4 +284,77 @@ class GameIntegrationTest {
         assertEquals(HttpStatus.CONFLICT, postResponse2.getStatusCode());
         assertTrue(postResponse2.getBody().contains("A game with this name already exists"));
     }
+
+    @Test
+    void givenCsv_whenImportingGames_thenImportsValidRowsAndRefreshesCatalog() {
+
+        restTemplate.postForEntity("/games", new GameDTO("Banco de Palavras", "imagem", 1, 500), String.class);
+        restTemplate.exchange("/games", HttpMethod.GET, null, String.class);
+
+        String csv = """
+                name,image,stockTotal,pricePerDay
+                Banco Imobiliário,http://image.com/1.png,3,1500
+                War,,2,abc
+                Detetive,,0,1000
+                Banco Imobiliário,,1,1000
+                """;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+
+        ResponseEntity<ImportReportDTO> response = restTemplate.exchange(
+                "/games/import",
+                HttpMethod.POST,
+                new HttpEntity<>(csv, headers),
+                ImportReportDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().imported());
+        assertEquals(3, response.getBody().rejected());
+        assertEquals("O valor pricePerDay deve ser um número inteiro", response.getBody().errors().get(0).message());
+        assertEquals("A game with this name already exists", response.getBody().errors().get(2).message());
+
+        ResponseEntity<List<GameModel>> games = restTemplate.exchange(
+                "/games",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<GameModel>>() {
+                });
+
+        assertEquals(2, games.getBody().size());
+        assertEquals("Banco Imobiliário", games.getBody().get(1).getName());
+        assertEquals(3, games.getBody().get(1).getStockTotal());
+        assertEquals(List.of("Banco de Palavras", "Banco Imobiliário"), suggestGameNames("/games/suggest?q=banco"));
+    }
+
+    @Test
+    void givenGames_whenSuggestingGames_thenListsPrefixMatchesBeforeOtherMatches() {
+
+        for (String name : List.of("Banco Imobiliário", "Imobiliária Master", "War", "Warhammer", "Jogo da Vida")) {
+            restTemplate.postForEntity("/games", new GameDTO(name, "imagem", 3, 1500), String.class);
+        }
+
+        assertEquals(List.of("Imobiliária Master", "Banco Imobiliário"), suggestGameNames("/games/suggest?q=IMOBILIARI"));
+        assertEquals(List.of("War", "Warhammer"), suggestGameNames("/games/suggest?q=wa"));
+        assertEquals(List.of("War"), suggestGameNames("/games/suggest?q=war&limit=1"));
+        assertEquals(List.of("Jogo da Vida"), suggestGameNames("/games/suggest?q=da vi"));
+        assertEquals(List.of(), suggestGameNames("/games/suggest?q=ar"));
+        assertEquals(List.of(), suggestGameNames("/games/suggest?q=xadrez"));
+
+        ResponseEntity<String> invalidLimit = restTemplate.getForEntity("/games/suggest?q=war&limit=51", String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, invalidLimit.getStatusCode());
+    }
+
+    private List<String> suggestGameNames(String url) {
+        ResponseEntity<List<GameSuggestionDTO>> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<GameSuggestionDTO>>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody().stream().map(GameSuggestionDTO::name).toList();
+    }
+
 }
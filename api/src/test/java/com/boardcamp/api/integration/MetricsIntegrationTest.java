@@ -0,0 +1,88 @@
+package com.boardcamp.api.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+
+// Metrics export is off in tests unless observability is auto-configured explicitly
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RentRepository rentRepository;
+
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUpDatabase() {
+        rentRepository.deleteAll();
+        customerRepository.deleteAll();
+        gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
+    }
+
+    @Test
+    void givenRentals_whenScrapingPrometheus_thenExposesServiceStockAndPoolMetrics() {
+
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Banco Imobiliário", "imagem", 3, 1500));
+        GameModel outOfStock = gameRepository.save(new GameModel(null, "War", "imagem", 0, 1500));
+
+        restTemplate.exchange("/rentals", HttpMethod.POST,
+                new HttpEntity<>(new RentDTO(customer.getId(), game.getId(), 3)), String.class);
+        ResponseEntity<String> rejected = restTemplate.exchange("/rentals", HttpMethod.POST,
+                new HttpEntity<>(new RentDTO(customer.getId(), outOfStock.getId(), 3)), String.class);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/actuator/prometheus",
+                HttpMethod.GET,
+                null,
+                String.class);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, rejected.getStatusCode());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        String metrics = response.getBody();
+        assertTrue(metrics.contains(
+                "boardcamp_service_seconds_count{class=\"com.boardcamp.api.services.RentService\",exception=\"none\",method=\"createRental\"}"));
+        assertTrue(metrics.contains("boardcamp_exceptions_total{exception=\"GameStockException\"}"));
+        assertTrue(metrics.contains("boardcamp_games_stock 2.0"));
+        assertTrue(metrics.contains("boardcamp_rentals_active 1.0"));
+        assertTrue(metrics.contains("hikaricp_connections_max"));
+        assertTrue(metrics.contains("hibernate_statements_total"));
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.boardcamp.api.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.boardcamp.api.config.SqlStatementBudgetFilter;
+import com.boardcamp.api.config.SqlStatementBudgetFilter.RequestStatements;
+import com.boardcamp.api.dtos.CustomerDTO;
+import com.boardcamp.api.dtos.GameDTO;
+import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.RentModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// A tight budget of its own also gives this class a fresh context. The pooled sequences outlive it, though, so
+// tests that insert make sure the id block Hibernate holds has room left before they measure
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "boardcamp.sql.statement-budget=3")
+@ActiveProfiles("test")
+class QueryCountIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SqlStatementBudgetFilter sqlStatementBudgetFilter;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RentRepository rentRepository;
+
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private CustomerModel customer;
+    private GameModel game;
+
+    @BeforeEach
+    void seed() {
+        cleanUpDatabase();
+        customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        game = gameRepository.save(new GameModel(null, "Banco Imobiliário", "imagem", 10, 1500));
+        rentRepository.save(new RentModel(null, customer, game, LocalDate.now(), 3, null, LocalDate.now(), 4500, 0));
+    }
+
+    @AfterEach
+    void cleanUpDatabase() {
+        rentRepository.deleteAll();
+        customerRepository.deleteAll();
+        gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
+    }
+
+    @Test
+    void givenManyRentals_whenGettingRentals_thenRunsOneStatement() {
+        for (int i = 0; i < 20; i++) {
+            rentRepository.save(new RentModel(null, customer, game, LocalDate.now(), 3, null, null, 4500, 0));
+        }
+
+        assertEquals(1, statements(() -> restTemplate.getForEntity("/rentals", String.class)).statements());
+    }
+
+    @Test
+    void whenGettingGames_thenRunsOneStatementThenServesFromCache() {
+        assertEquals(1, statements(() -> restTemplate.getForEntity("/games", String.class)).statements());
+        assertEquals(0, statements(() -> restTemplate.getForEntity("/games", String.class)).statements());
+    }
+
+    @Test
+    void whenGettingCustomers_thenRunsOneStatement() {
+        assertEquals(1, statements(() -> restTemplate.getForEntity("/customers", String.class)).statements());
+    }
+
+    @Test
+    void whenGettingCustomer_thenRunsAtMostOneStatement() {
+        customerRepository.findAll();
+        assertEquals(0, statements(() -> restTemplate.getForEntity("/customers/" + customer.getId(), String.class))
+                .statements());
+    }
+
+    @Test
+    void whenCreatingCustomerAndGame_thenRunsOneInsertEach() {
+        RequestStatements customers = statements(() -> restTemplate.postForEntity(
+                "/customers", new CustomerDTO("Ana", "1234567890", "12345678902"), String.class));
+        RequestStatements games = statements(() -> restTemplate.postForEntity(
+                "/games", new GameDTO("War", "imagem", 3, 1500), String.class));
+
+        assertEquals(1, customers.statements());
+        assertEquals(1, games.statements());
+    }
+
+    @Test
+    void whenCreatingReturningAndDeletingRental_thenRunsAFixedNumberOfStatements() {
+        reserveRentId();
+        RequestStatements created = statements(() -> restTemplate.postForEntity(
+                "/rentals", new RentDTO(customer.getId(), game.getId(), 3), String.class));
+        Long id = rentRepository.findAll().stream().filter(rent -> rent.getReturnDate() == null).findFirst().get().getId();
+
+        RequestStatements returned = statements(() -> restTemplate.postForEntity(
+                "/rentals/" + id + "/return", null, String.class));
+        RequestStatements deleted = statements(() -> restTemplate.exchange(
+                "/rentals/" + id, HttpMethod.DELETE, HttpEntity.EMPTY, String.class));
+
+        assertEquals(4, created.statements());
+        assertEquals(3, returned.statements());
+        assertEquals(3, deleted.statements());
+    }
+
+    @Test
+    void whenRequestingUnmappedPath_thenTagsAFixedRoute() {
+        RequestStatements statements = statements(() -> restTemplate.getForEntity("/rentals/123/foo", String.class));
+
+        assertEquals("NOT_FOUND", statements.route());
+        assertNull(meterRegistry.find("boardcamp.http.sql.statements").tag("route", "/rentals/123/foo").meter());
+    }
+
+    // rents_seq is pooled, so its last value is the highest id of the block in use: saving rents until one gets a
+    // lower id leaves the next id inside that block, and the measured insert never runs a nextval
+    private void reserveRentId() {
+        Long id;
+        do {
+            id = rentRepository.save(new RentModel(null, customer, game, LocalDate.now(), 3, null, LocalDate.now(), 4500, 0))
+                    .getId();
+        } while (id >= jdbcTemplate.queryForObject("SELECT last_value FROM rents_seq", Long.class));
+    }
+
+    private RequestStatements statements(Runnable request) {
+        return SqlStatementCapture.capture(sqlStatementBudgetFilter, request);
+    }
+
+}
@@ -4,12 +4,23 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
 
 import javax.print.DocFlavor.STRING;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,18 +29,35 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.boardcamp.api.config.SecondLevelCacheConfig;
+import com.boardcamp.api.dtos.GameDTO;
+import com.boardcamp.api.dtos.ImportReportDTO;
+import com.boardcamp.api.dtos.OverdueRentDTO;
+import com.boardcamp.api.dtos.RentCartDTO;
+import com.boardcamp.api.dtos.RentCartItemDTO;
 import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.dtos.RentResponseDTO;
+import com.boardcamp.api.dtos.RentReturnDTO;
+import com.boardcamp.api.dtos.RentReturnResultDTO;
+import com.boardcamp.api.dtos.RentReturnResultDTO.Outcome;
+import com.boardcamp.api.dtos.RevenueDTO;
 import com.boardcamp.api.models.CustomerModel;
 import com.boardcamp.api.models.GameModel;
 import com.boardcamp.api.models.RentModel;
 import com.boardcamp.api.repositories.CustomerRepository;
 import com.boardcamp.api.repositories.GameRepository;
 import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+
+import jakarta.persistence.EntityManagerFactory;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -47,12 +75,19 @@ class RentIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     @AfterEach
     void cleanUpDatabase() {
         rentRepository.deleteAll();
         customerRepository.deleteAll();
         gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
     }
 
     @Test
@@ -96,6 +131,159 @@ class RentIntegrationTest {
         assertEquals(2, rents.size());
     }
 
+    @Test
+    void givenThousandRents_whenGettingRents_thenIssuesSingleStatement() {
+
+        List<CustomerModel> customers = new ArrayList<>();
+        List<GameModel> games = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            customers.add(customerRepository.save(new CustomerModel(null, "Cliente " + i, "1234567890", "1234567890" + i)));
+            games.add(gameRepository.save(new GameModel(null, "Jogo " + i, "imagem", 3, 3000)));
+        }
+
+        List<RentModel> rents = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rents.add(new RentModel(null, customers.get(i % 10), games.get(i / 100), LocalDate.now(), 3, null, null, 9000, 0));
+        }
+        rentRepository.saveAll(rents);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            ResponseEntity<List<RentModel>> getResponse = restTemplate.exchange(
+                    "/rentals?limit=1000",
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<List<RentModel>>() {
+                    });
+
+            assertEquals(HttpStatus.OK, getResponse.getStatusCode());
+            assertEquals(1000, getResponse.getBody().size());
+            assertEquals("Jogo 9", getResponse.getBody().get(999).getGame().getName());
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void givenRents_whenExportingRents_thenStreamsOneJsonPerLine() throws Exception {
+
+        CustomerModel customer = new CustomerModel(null, "Tiago", "1234567890", "12345678901");
+        customer = customerRepository.save(customer);
+
+        GameModel game = new GameModel(null, "Jogo Teste", "imagem", 3, 3000);
+        game = gameRepository.save(game);
+
+        for (int i = 0; i < 3; i++) {
+            rentRepository.save(new RentModel(null, customer, game, LocalDate.now(), 3, null, null, 9000, 0));
+        }
+
+        ResponseEntity<String> plainResponse = restTemplate.exchange(
+                "/rentals/export",
+                HttpMethod.GET,
+                null,
+                String.class);
+
+        HttpHeaders gzipHeaders = new HttpHeaders();
+        gzipHeaders.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        ResponseEntity<byte[]> gzipResponse = restTemplate.exchange(
+                "/rentals/export",
+                HttpMethod.GET,
+                new HttpEntity<>(gzipHeaders),
+                byte[].class);
+
+        String unzipped;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipResponse.getBody()))) {
+            unzipped = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        String[] lines = plainResponse.getBody().split("\n");
+        RentModel first = new ObjectMapper().findAndRegisterModules().readValue(lines[0], RentModel.class);
+
+        assertEquals(HttpStatus.OK, plainResponse.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, plainResponse.getHeaders().getContentType());
+        assertEquals(3, lines.length);
+        assertTrue(plainResponse.getBody().endsWith("\n"));
+        assertEquals("Tiago", first.getCustomer().getName());
+        assertEquals("gzip", gzipResponse.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(plainResponse.getBody(), unzipped);
+    }
+
+    @Test
+    void givenFilters_whenGettingRents_thenReturnsMatchingRents() {
+
+        CustomerModel customer1 = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        CustomerModel customer2 = customerRepository.save(new CustomerModel(null, "Carlos", "1234567890", "12345678902"));
+
+        GameModel game1 = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 3, 3000));
+        GameModel game2 = gameRepository.save(new GameModel(null, "Jogo 2", "imagem", 3, 3000));
+
+        LocalDate today = LocalDate.now();
+        rentRepository.save(new RentModel(null, customer1, game1, today.minusDays(10), 3, null, today.minusDays(7), 9000, 0));
+        rentRepository.save(new RentModel(null, customer1, game2, today.minusDays(2), 3, null, null, 9000, 0));
+        rentRepository.save(new RentModel(null, customer2, game1, today, 3, null, null, 9000, 0));
+
+        assertEquals(2, getRentsCount("/rentals?customerId=" + customer1.getId()));
+        assertEquals(1, getRentsCount("/rentals?customerId=" + customer1.getId() + "&status=open"));
+        assertEquals(2, getRentsCount("/rentals?gameId=" + game1.getId()));
+        assertEquals(1, getRentsCount("/rentals?status=closed"));
+        assertEquals(2, getRentsCount("/rentals?startDate=" + today.minusDays(2)));
+        assertEquals(2, getRentsCount("/rentals?startDate=" + today.minusDays(10) + "&endDate=" + today.minusDays(1)));
+
+        ResponseEntity<String> invalidStatus = restTemplate.exchange(
+                "/rentals?status=late",
+                HttpMethod.GET,
+                null,
+                String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, invalidStatus.getStatusCode());
+    }
+
+    @Test
+    void givenOverdueRents_whenGettingOverdueRents_thenReturnsOpenLateRentsWithAccruedFee() {
+
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 5, 1500));
+
+        LocalDate today = LocalDate.now();
+        RentModel overdue = rentRepository.save(new RentModel(null, customer, game, today.minusDays(10), 3, null, null, 4500, 0));
+        rentRepository.save(new RentModel(null, customer, game, today.minusDays(3), 3, null, null, 4500, 0));
+        rentRepository.save(new RentModel(null, customer, game, today.minusDays(10), 3, null, today, 4500, 10500));
+
+        ResponseEntity<List<OverdueRentDTO>> response = restTemplate.exchange(
+                "/rentals/overdue",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<OverdueRentDTO>>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+
+        OverdueRentDTO rent = response.getBody().get(0);
+        assertEquals(overdue.getId(), rent.id());
+        assertEquals("Tiago", rent.customerName());
+        assertEquals(today.minusDays(7), rent.expectedReturnDate());
+        assertEquals(7, rent.daysLate());
+        assertEquals(7 * 1500, rent.accruedFee());
+    }
+
+    private int getRentsCount(String url) {
+        ResponseEntity<List<RentModel>> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<RentModel>>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody().size();
+    }
+
     @Test
     void givenNonExistingGame_whenCreatingRent_thenThrowsError() {
 
@@ -172,18 +360,295 @@ class RentIntegrationTest {
         RentDTO dto1 = new RentDTO(customer.getId(), game.getId(), 3);
         HttpEntity<RentDTO> body1 = new HttpEntity<>(dto1);
 
-        ResponseEntity<RentModel> postResponse1 = restTemplate.exchange(
+        ResponseEntity<RentResponseDTO> postResponse1 = restTemplate.exchange(
                 "/rentals",
                 HttpMethod.POST,
                 body1,
-                RentModel.class);
+                RentResponseDTO.class);
 
-        RentModel rent = postResponse1.getBody();
-        Optional<RentModel> savedRent = rentRepository.findById(rent.getId());
+        RentResponseDTO rent = postResponse1.getBody();
+        Optional<RentModel> savedRent = rentRepository.findById(rent.id());
 
         assertEquals(HttpStatus.OK, postResponse1.getStatusCode());
-        assertEquals(rent, savedRent.get());
+        assertEquals(RentResponseDTO.of(savedRent.get()), rent);
+        assertEquals(new RentResponseDTO.Customer(customer.getId(), "Tiago"), rent.customer());
+
+    }
+
+    @Test
+    void givenRentedGame_whenRentingItAgain_thenReadsTheGameFromTheCache() {
+        CustomerModel customer = new CustomerModel(null, "Tiago", "1234567890", "12345678901");
+        customer = customerRepository.save(customer);
+
+        GameModel game = new GameModel(null, "Jogo Teste", "imagem", 3, 3000);
+        game = gameRepository.save(game);
+
+        HttpEntity<RentDTO> body = new HttpEntity<>(new RentDTO(customer.getId(), game.getId(), 3));
+        assertEquals(HttpStatus.OK, restTemplate.exchange("/rentals", HttpMethod.POST, body, String.class).getStatusCode());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            ResponseEntity<RentResponseDTO> response = restTemplate.exchange(
+                    "/rentals",
+                    HttpMethod.POST,
+                    body,
+                    RentResponseDTO.class);
+
+            CacheRegionStatistics summaries = statistics
+                    .getDomainDataRegionStatistics(SecondLevelCacheConfig.GAME_SUMMARIES_REGION);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("Jogo Teste", response.getBody().game().name());
+            assertEquals(1, summaries.getHitCount());
+            assertEquals(0, summaries.getMissCount());
+            assertEquals(1, gameRepository.findById(game.getId()).get().getStockTotal());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void givenConcurrentRentals_whenCreatingRents_thenDoesNotOversell() throws Exception {
+        CustomerModel customer = new CustomerModel(null, "Tiago", "1234567890", "12345678901");
+        customer = customerRepository.save(customer);
+
+        GameModel game = new GameModel(null, "Jogo Teste", "imagem", 5, 3000);
+        game = gameRepository.save(game);
+
+        RentDTO dto = new RentDTO(customer.getId(), game.getId(), 3);
+        int requests = 300;
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Callable<HttpStatus>> calls = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            calls.add(() -> HttpStatus.valueOf(restTemplate.exchange(
+                    "/rentals",
+                    HttpMethod.POST,
+                    new HttpEntity<>(dto),
+                    String.class).getStatusCode().value()));
+        }
+
+        int created = 0;
+        int rejected = 0;
+        try {
+            for (Future<HttpStatus> result : executor.invokeAll(calls)) {
+                HttpStatus status = result.get();
+                if (status == HttpStatus.OK) {
+                    created++;
+                } else if (status == HttpStatus.UNPROCESSABLE_ENTITY) {
+                    rejected++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(5, created);
+        assertEquals(requests - 5, rejected);
+        assertEquals(5, rentRepository.count());
+        assertEquals(0, gameRepository.findById(game.getId()).get().getStockTotal());
+    }
+
+    @Test
+    void givenShardedGame_whenCreatingRentsConcurrently_thenDoesNotOversell() throws Exception {
+        CustomerModel customer = new CustomerModel(null, "Tiago", "1234567890", "12345678901");
+        customer = customerRepository.save(customer);
+
+        HttpEntity<GameDTO> gameBody = new HttpEntity<>(new GameDTO("Jogo Teste", "imagem", 7, 3000, 4));
+        GameModel game = restTemplate.exchange("/games", HttpMethod.POST, gameBody, GameModel.class).getBody();
+
+        RentDTO dto = new RentDTO(customer.getId(), game.getId(), 3);
+        int requests = 100;
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        List<Callable<HttpStatus>> calls = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            calls.add(() -> HttpStatus.valueOf(restTemplate.exchange(
+                    "/rentals",
+                    HttpMethod.POST,
+                    new HttpEntity<>(dto),
+                    String.class).getStatusCode().value()));
+        }
+
+        int created = 0;
+        try {
+            for (Future<HttpStatus> result : executor.invokeAll(calls)) {
+                if (result.get() == HttpStatus.OK) {
+                    created++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(7, created);
+        assertEquals(7, rentRepository.count());
+        assertEquals(0, gameRepository.findById(game.getId()).get().getStockTotal());
+    }
+
+    @Test
+    void givenCachedGames_whenCreatingRents_thenCacheReflectsNewStock() {
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 3, 3000));
+
+        HttpEntity<GameDTO> shardedBody = new HttpEntity<>(new GameDTO("Jogo 2", "imagem", 4, 3000, 2));
+        GameModel sharded = restTemplate.exchange("/games", HttpMethod.POST, shardedBody, GameModel.class).getBody();
+
+        assertEquals(3, gameRepository.findById(game.getId()).get().getStockTotal());
+        assertEquals(4, gameRepository.findById(sharded.getId()).get().getStockTotal());
+
+        restTemplate.exchange("/rentals", HttpMethod.POST,
+                new HttpEntity<>(new RentDTO(customer.getId(), game.getId(), 3)), String.class);
+        restTemplate.exchange("/rentals", HttpMethod.POST,
+                new HttpEntity<>(new RentDTO(customer.getId(), sharded.getId(), 3)), String.class);
+
+        assertEquals(2, gameRepository.findById(game.getId()).get().getStockTotal());
+        assertEquals(3, gameRepository.findById(sharded.getId()).get().getStockTotal());
+    }
+
+    @Test
+    void givenCart_whenCreatingCart_thenRentsEveryItemAndTakesTheStock() {
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 3, 3000));
+
+        HttpEntity<GameDTO> shardedBody = new HttpEntity<>(new GameDTO("Jogo 2", "imagem", 4, 1500, 2));
+        GameModel sharded = restTemplate.exchange("/games", HttpMethod.POST, shardedBody, GameModel.class).getBody();
+
+        RentCartDTO cart = new RentCartDTO(customer.getId(), List.of(
+                new RentCartItemDTO(game.getId(), 3),
+                new RentCartItemDTO(sharded.getId(), 2),
+                new RentCartItemDTO(game.getId(), 1)));
+
+        ResponseEntity<List<RentResponseDTO>> response = restTemplate.exchange(
+                "/rentals/cart",
+                HttpMethod.POST,
+                new HttpEntity<>(cart),
+                new ParameterizedTypeReference<List<RentResponseDTO>>() {});
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(9000, 3000, 3000),
+                response.getBody().stream().map(RentResponseDTO::originalPrice).toList());
+        assertEquals(3, rentRepository.count());
+        assertEquals(1, gameRepository.findById(game.getId()).get().getStockTotal());
+        assertEquals(3, gameRepository.findById(sharded.getId()).get().getStockTotal());
+    }
 
+    @Test
+    void givenOverlappingCarts_whenCreatingThemConcurrently_thenAllSucceedWithoutOverselling() throws Exception {
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel first = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 40, 3000));
+        GameModel second = gameRepository.save(new GameModel(null, "Jogo 2", "imagem", 40, 3000));
+
+        RentCartDTO forward = new RentCartDTO(customer.getId(), List.of(
+                new RentCartItemDTO(first.getId(), 3), new RentCartItemDTO(second.getId(), 3)));
+        RentCartDTO backward = new RentCartDTO(customer.getId(), List.of(
+                new RentCartItemDTO(second.getId(), 3), new RentCartItemDTO(first.getId(), 3)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<HttpStatus>> calls = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            RentCartDTO cart = i % 2 == 0 ? forward : backward;
+            calls.add(() -> HttpStatus.valueOf(restTemplate.exchange(
+                    "/rentals/cart",
+                    HttpMethod.POST,
+                    new HttpEntity<>(cart),
+                    String.class).getStatusCode().value()));
+        }
+
+        int created = 0;
+        try {
+            for (Future<HttpStatus> result : executor.invokeAll(calls)) {
+                if (result.get() == HttpStatus.OK) {
+                    created++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(40, created);
+        assertEquals(80, rentRepository.count());
+        assertEquals(0, gameRepository.findById(first.getId()).get().getStockTotal());
+        assertEquals(0, gameRepository.findById(second.getId()).get().getStockTotal());
+    }
+
+    @Test
+    void givenCartWithGameOutOfStock_whenCreatingCart_thenRentsNothing() {
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 3, 3000));
+        GameModel soldOut = gameRepository.save(new GameModel(null, "Jogo 2", "imagem", 1, 3000));
+
+        RentCartDTO cart = new RentCartDTO(customer.getId(), List.of(
+                new RentCartItemDTO(game.getId(), 3),
+                new RentCartItemDTO(soldOut.getId(), 3),
+                new RentCartItemDTO(soldOut.getId(), 3)));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/rentals/cart",
+                HttpMethod.POST,
+                new HttpEntity<>(cart),
+                String.class);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(0, rentRepository.count());
+        assertEquals(3, gameRepository.findById(game.getId()).get().getStockTotal());
+        assertEquals(1, gameRepository.findById(soldOut.getId()).get().getStockTotal());
+    }
+
+    @Test
+    void givenHistoricalRents_whenBackfilling_thenInsertsValidRowsAndReportsTheOthers() {
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 3, 1000));
+        LocalDate rentDate = LocalDate.of(2020, 1, 10);
+
+        // Enough rows to span several flushed chunks
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            ndjson.append(String.format(
+                    "{\"customerId\":%d,\"gameId\":%d,\"rentDate\":\"%s\",\"daysRented\":3,\"returnDate\":\"%s\"}%n",
+                    customer.getId(), game.getId(), rentDate, rentDate.plusDays(i % 2 == 0 ? 3 : 5)));
+        }
+        ndjson.append(String.format(
+                "{\"customerId\":%d,\"gameId\":%d,\"rentDate\":\"%s\",\"daysRented\":3,\"returnDate\":\"%s\",\"originalPrice\":500,\"delayFee\":0}%n",
+                customer.getId(), game.getId(), rentDate, rentDate.plusDays(3)));
+        ndjson.append("not json\n");
+        ndjson.append(String.format(
+                "{\"customerId\":%d,\"gameId\":%d,\"rentDate\":\"%s\",\"daysRented\":3,\"returnDate\":\"%s\"}%n",
+                customer.getId() + 1000, game.getId(), rentDate, rentDate.plusDays(3)));
+        ndjson.append(String.format(
+                "{\"customerId\":%d,\"gameId\":%d,\"rentDate\":\"%s\",\"daysRented\":3,\"returnDate\":\"%s\"}%n",
+                customer.getId(), game.getId(), rentDate, rentDate.minusDays(1)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        ResponseEntity<ImportReportDTO> response = restTemplate.exchange(
+                "/rentals/backfill",
+                HttpMethod.POST,
+                new HttpEntity<>(ndjson.toString(), headers),
+                ImportReportDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2501, response.getBody().imported());
+        assertEquals(List.of(
+                new ImportReportDTO.RowError(2502, "The line is not a valid rental"),
+                new ImportReportDTO.RowError(2503, "a customer with this id does not exist"),
+                new ImportReportDTO.RowError(2504, "returnedAfterRent: O valor returnDate não pode ser anterior a rentDate")),
+                response.getBody().errors());
+        assertEquals(2501, rentRepository.count());
+        assertEquals(3, gameRepository.findById(game.getId()).get().getStockTotal());
+
+        ResponseEntity<List<RevenueDTO>> revenue = restTemplate.exchange(
+                "/reports/revenue?from=" + rentDate + "&to=" + rentDate.plusDays(5),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<RevenueDTO>>() {});
+
+        assertEquals(List.of(
+                new RevenueDTO(game.getId(), rentDate, 2500 * 3000L + 500),
+                new RevenueDTO(game.getId(), rentDate.plusDays(5), 1250 * 2000L)), revenue.getBody());
     }
 
     @Test
@@ -195,7 +660,7 @@ class RentIntegrationTest {
         GameModel game = new GameModel(null, "Jogo Teste", "imagem", 3, 3000);
         game = gameRepository.save(game);
 
-        RentModel rent = new RentModel(null, customer, game, LocalDate.now(), 3, null, 3000, 0);
+        RentModel rent = new RentModel(null, customer, game, LocalDate.now(), 3, null, null, 3000, 0);
 
         RentModel saved = rentRepository.save(rent);
         Long wrongId = saved.getId() + 1000;
@@ -218,7 +683,7 @@ class RentIntegrationTest {
         GameModel game = new GameModel(null, "Jogo Teste", "imagem", 3, 3000);
         game = gameRepository.save(game);
 
-        RentModel rent = new RentModel(null, customer, game, LocalDate.now(), 3, LocalDate.now().plusDays(3), 3000, 0);
+        RentModel rent = new RentModel(null, customer, game, LocalDate.now(), 3, null, LocalDate.now().plusDays(3), 3000, 0);
 
         RentModel saved = rentRepository.save(rent);
 
@@ -240,7 +705,7 @@ class RentIntegrationTest {
         GameModel game = new GameModel(null, "Jogo Teste", "imagem", 3, 3000);
         game = gameRepository.save(game);
 
-        RentModel rentModel = new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, 3000, 0);
+        RentModel rentModel = new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, null, 3000, 0);
 
         RentModel saved = rentRepository.save(rentModel);
 
@@ -255,6 +720,120 @@ class RentIntegrationTest {
 
         assertEquals(HttpStatus.OK, postResponse.getStatusCode());
         assertEquals(savedRent.get().getDelayFee(), rent.getDelayFee());
+        assertEquals(4, gameRepository.findById(game.getId()).get().getStockTotal());
+    }
+
+    @Test
+    void givenLateRent_whenReturningItConcurrently_thenRestocksAndChargesOnce() throws Exception {
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo Teste", "imagem", 3, 3000));
+        RentModel rent = rentRepository.save(
+                new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, null, 9000, 0));
+
+        int requests = 100;
+
+        // Half close the rental on its own, half through the bulk endpoint
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Callable<Boolean>> calls = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            if (i % 2 == 0) {
+                calls.add(() -> restTemplate.exchange(
+                        "/rentals/" + rent.getId() + "/return",
+                        HttpMethod.POST,
+                        null,
+                        String.class).getStatusCode() == HttpStatus.OK);
+            } else {
+                calls.add(() -> restTemplate.exchange(
+                        "/rentals/return",
+                        HttpMethod.POST,
+                        new HttpEntity<>(new RentReturnDTO(List.of(rent.getId()))),
+                        new ParameterizedTypeReference<List<RentReturnResultDTO>>() {})
+                        .getBody().get(0).outcome() == Outcome.RETURNED);
+            }
+        }
+
+        int returned = 0;
+        try {
+            for (Future<Boolean> result : executor.invokeAll(calls)) {
+                if (result.get()) {
+                    returned++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        ResponseEntity<List<RevenueDTO>> revenue = restTemplate.exchange(
+                "/reports/revenue?from=" + LocalDate.now() + "&to=" + LocalDate.now() + "&gameId=" + game.getId(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<RevenueDTO>>() {});
+
+        assertEquals(1, returned);
+        assertEquals(4, gameRepository.findById(game.getId()).get().getStockTotal());
+        assertEquals(6000, rentRepository.findById(rent.getId()).get().getDelayFee());
+        assertEquals(List.of(new RevenueDTO(game.getId(), LocalDate.now(), 6000)), revenue.getBody());
+    }
+
+    @Test
+    void givenMixedRents_whenReturningRentals_thenReportsOutcomePerIdAndRestocks() {
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 3, 3000));
+
+        HttpEntity<GameDTO> shardedBody = new HttpEntity<>(new GameDTO("Jogo 2", "imagem", 4, 1500, 2));
+        GameModel sharded = restTemplate.exchange("/games", HttpMethod.POST, shardedBody, GameModel.class).getBody();
+
+        RentModel late = rentRepository.save(
+                new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, null, 9000, 0));
+        RentModel onTime = rentRepository.save(
+                new RentModel(null, customer, sharded, LocalDate.now(), 3, null, null, 4500, 0));
+        RentModel lateSharded = rentRepository.save(
+                new RentModel(null, customer, sharded, LocalDate.now().minusDays(4), 3, null, null, 4500, 0));
+        RentModel closed = rentRepository.save(
+                new RentModel(null, customer, game, LocalDate.now().minusDays(3), 3, null, LocalDate.now(), 9000, 0));
+        Long missing = lateSharded.getId() + closed.getId() + 1000;
+
+        RentReturnDTO dto = new RentReturnDTO(List.of(
+                late.getId(), closed.getId(), missing, onTime.getId(), late.getId(), lateSharded.getId()));
+        ResponseEntity<List<RentReturnResultDTO>> response = restTemplate.exchange(
+                "/rentals/return",
+                HttpMethod.POST,
+                new HttpEntity<>(dto),
+                new ParameterizedTypeReference<List<RentReturnResultDTO>>() {});
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(
+                new RentReturnResultDTO(late.getId(), Outcome.RETURNED, 2 * 3000),
+                new RentReturnResultDTO(closed.getId(), Outcome.ALREADY_RETURNED, null),
+                new RentReturnResultDTO(missing, Outcome.NOT_FOUND, null),
+                new RentReturnResultDTO(onTime.getId(), Outcome.RETURNED, 0),
+                new RentReturnResultDTO(lateSharded.getId(), Outcome.RETURNED, 1500)), response.getBody());
+
+        RentModel returned = rentRepository.findById(late.getId()).get();
+        assertEquals(LocalDate.now(), returned.getReturnDate());
+        assertEquals(6000, returned.getDelayFee());
+        assertEquals(4, gameRepository.findById(game.getId()).get().getStockTotal());
+        assertEquals(6, gameRepository.findById(sharded.getId()).get().getStockTotal());
+
+        ResponseEntity<List<RentReturnResultDTO>> again = restTemplate.exchange(
+                "/rentals/return",
+                HttpMethod.POST,
+                new HttpEntity<>(new RentReturnDTO(List.of(late.getId()))),
+                new ParameterizedTypeReference<List<RentReturnResultDTO>>() {});
+
+        assertEquals(List.of(new RentReturnResultDTO(late.getId(), Outcome.ALREADY_RETURNED, null)), again.getBody());
+        assertEquals(4, gameRepository.findById(game.getId()).get().getStockTotal());
+    }
+
+    @Test
+    void givenEmptyIds_whenReturningRentals_thenThrowsError() {
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/rentals/return",
+                HttpMethod.POST,
+                new HttpEntity<>(new RentReturnDTO(List.of())),
+                String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
     @Test
@@ -265,7 +844,7 @@ class RentIntegrationTest {
         GameModel game = new GameModel(null, "Jogo Teste", "imagem", 3, 3000);
         game = gameRepository.save(game);
 
-        RentModel rentModel = new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, 3000, 0);
+        RentModel rentModel = new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, null, 3000, 0);
 
         RentModel saved = rentRepository.save(rentModel);
 
@@ -287,7 +866,7 @@ class RentIntegrationTest {
         GameModel game = new GameModel(null, "Jogo Teste", "imagem", 3, 3000);
         game = gameRepository.save(game);
 
-        RentModel rentModel = new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, 3000, 0);
+        RentModel rentModel = new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, null, 3000, 0);
 
         RentModel saved = rentRepository.save(rentModel);
 
@@ -311,7 +890,7 @@ class RentIntegrationTest {
         GameModel game = new GameModel(null, "Jogo Teste", "imagem", 3, 3000);
         game = gameRepository.save(game);
 
-        RentModel rentModel = new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, LocalDate.now(), 3000, 0);
+        RentModel rentModel = new RentModel(null, customer, game, LocalDate.now().minusDays(5), 3, null, LocalDate.now(), 3000, 0);
 
         RentModel saved = rentRepository.save(rentModel);
 
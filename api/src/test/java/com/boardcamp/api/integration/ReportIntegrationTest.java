@@ -0,0 +1,170 @@
+package com.boardcamp.api.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.dtos.RevenueDTO;
+import com.boardcamp.api.models.CustomerModel;
+import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.RentModel;
+import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameDailyRevenueRepository;
+import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ReportIntegrationTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RentRepository rentRepository;
+
+    @Autowired
+    private GameDailyRevenueRepository gameDailyRevenueRepository;
+
+    @Autowired
+    private GameCatalogCache gameCatalogCache;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUpDatabase() {
+        rentRepository.deleteAll();
+        gameDailyRevenueRepository.deleteAll();
+        customerRepository.deleteAll();
+        gameRepository.deleteAll();
+        gameCatalogCache.invalidate();
+    }
+
+    @Test
+    void givenRentals_whenGettingRevenue_thenReturnsPricesAndFeesPerGameAndDay() {
+
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game1 = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 5, 1500));
+        GameModel game2 = gameRepository.save(new GameModel(null, "Jogo 2", "imagem", 5, 2000));
+
+        createRental(customer, game1, 3);
+        createRental(customer, game1, 2);
+        createRental(customer, game2, 1);
+
+        // Written before the report existed, so only its delay fee is counted when it is returned
+        LocalDate today = LocalDate.now();
+        RentModel late = rentRepository.save(new RentModel(null, customer, game1, today.minusDays(5), 3, null, null, 4500, 0));
+        restTemplate.postForEntity("/rentals/" + late.getId() + "/return", null, String.class);
+
+        List<RevenueDTO> revenue = getRevenue("/reports/revenue?from=" + today.minusDays(1) + "&to=" + today);
+
+        assertEquals(List.of(
+                new RevenueDTO(game1.getId(), today, 3 * 1500 + 2 * 1500 + 2 * 1500),
+                new RevenueDTO(game2.getId(), today, 2000)), revenue);
+
+        assertEquals(List.of(new RevenueDTO(game2.getId(), today, 2000)),
+                getRevenue("/reports/revenue?from=" + today + "&to=" + today + "&gameId=" + game2.getId()));
+        assertEquals(List.of(), getRevenue("/reports/revenue?from=" + today.minusDays(3) + "&to=" + today.minusDays(1)));
+    }
+
+    @Test
+    void givenDeletedRental_whenGettingRevenue_thenRentalIsNoLongerCounted() {
+
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 5, 1500));
+
+        createRental(customer, game, 3);
+        RentModel rent = createRental(customer, game, 2);
+        restTemplate.postForEntity("/rentals/" + rent.getId() + "/return", null, String.class);
+        restTemplate.exchange("/rentals/" + rent.getId(), HttpMethod.DELETE, HttpEntity.EMPTY, String.class);
+
+        LocalDate today = LocalDate.now();
+        assertEquals(List.of(new RevenueDTO(game.getId(), today, 3 * 1500)),
+                getRevenue("/reports/revenue?from=" + today + "&to=" + today));
+    }
+
+    @Test
+    void givenConcurrentRentalsOfOneGame_whenGettingRevenue_thenSumsEveryBucket() throws Exception {
+
+        CustomerModel customer = customerRepository.save(new CustomerModel(null, "Tiago", "1234567890", "12345678901"));
+        GameModel game = gameRepository.save(new GameModel(null, "Jogo 1", "imagem", 100, 1500));
+        int requests = 64;
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<HttpStatus>> calls = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            calls.add(() -> HttpStatus.valueOf(restTemplate.postForEntity(
+                    "/rentals", new RentDTO(customer.getId(), game.getId(), 2), String.class)
+                    .getStatusCode().value()));
+        }
+
+        try {
+            for (Future<HttpStatus> result : executor.invokeAll(calls)) {
+                assertEquals(HttpStatus.OK, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        LocalDate today = LocalDate.now();
+        assertEquals(List.of(new RevenueDTO(game.getId(), today, requests * 2 * 1500)),
+                getRevenue("/reports/revenue?from=" + today + "&to=" + today));
+        assertTrue(gameDailyRevenueRepository.count() > 1);
+    }
+
+    @Test
+    void givenMissingRange_whenGettingRevenue_thenReturnsBadRequest() {
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/reports/revenue?gameId=1", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private RentModel createRental(CustomerModel customer, GameModel game, int daysRented) {
+        ResponseEntity<RentModel> response = restTemplate.postForEntity(
+                "/rentals", new RentDTO(customer.getId(), game.getId(), daysRented), RentModel.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private List<RevenueDTO> getRevenue(String url) {
+        ResponseEntity<List<RevenueDTO>> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<RevenueDTO>>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+}
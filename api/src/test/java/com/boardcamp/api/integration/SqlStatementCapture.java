@@ -0,0 +1,41 @@
+package com.boardcamp.api.integration;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.boardcamp.api.config.SqlStatementBudgetFilter;
+import com.boardcamp.api.config.SqlStatementBudgetFilter.RequestStatements;
+
+// Returns the statements run by the single HTTP request made inside `request`. The filter reports after the
+// response may already have reached the client, so the result is awaited instead of read right away.
+final class SqlStatementCapture {
+
+    private SqlStatementCapture() {
+    }
+
+    static RequestStatements capture(SqlStatementBudgetFilter filter, Runnable request) {
+        BlockingQueue<RequestStatements> captured = new LinkedBlockingQueue<>();
+        Consumer<RequestStatements> listener = captured::add;
+
+        filter.addListener(listener);
+        try {
+            request.run();
+            RequestStatements statements = captured.poll(5, TimeUnit.SECONDS);
+            if (statements == null) {
+                throw new AssertionError("No request was recorded");
+            }
+            if (captured.poll(100, TimeUnit.MILLISECONDS) != null) {
+                throw new AssertionError("More than one request was recorded");
+            }
+            return statements;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        } finally {
+            filter.removeListener(listener);
+        }
+    }
+
+}
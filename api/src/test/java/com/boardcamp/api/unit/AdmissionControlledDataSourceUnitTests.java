@@ -0,0 +1,90 @@
+package com.boardcamp.api.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.boardcamp.api.config.AdmissionControlledDataSource;
+
+@SpringBootTest
+class AdmissionControlledDataSourceUnitTests {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void givenBorrowedConnection_whenClosingTwice_thenReleasesPermitOnce() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(pool, 2, 0, Duration.ZERO);
+
+        Connection borrowed = dataSource.getConnection();
+        assertEquals(1, dataSource.availablePermits());
+
+        borrowed.close();
+        borrowed.close();
+
+        assertEquals(2, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void givenFullQueue_whenGettingConnection_thenFailsFast() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(pool, 1, 0, Duration.ofMinutes(1));
+
+        dataSource.getConnection();
+
+        SQLTransientConnectionException exception = assertThrows(
+                SQLTransientConnectionException.class,
+                dataSource::getConnection);
+        assertEquals("Database admission queue is full", exception.getMessage());
+    }
+
+    @Test
+    void givenQueuedCaller_whenConnectionIsClosed_thenAdmitsIt() throws Exception {
+        when(pool.getConnection()).thenReturn(connection);
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(pool, 1, 1, Duration.ofSeconds(10));
+
+        Connection borrowed = dataSource.getConnection();
+        CompletableFuture<Connection> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        borrowed.close();
+
+        queued.get(5, TimeUnit.SECONDS).close();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void givenPoolFailure_whenGettingConnection_thenReturnsPermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("down"));
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(pool, 1, 0, Duration.ZERO);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+}
@@ -12,12 +12,18 @@ import org.mockito.Mock;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import com.boardcamp.api.dtos.CursorPageDTO;
 import com.boardcamp.api.dtos.CustomerDTO;
+import com.boardcamp.api.dtos.CustomerResponseDTO;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerConflictException;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerInvalidCpfException;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerInvalidPhoneException;
@@ -42,13 +48,10 @@ class CustomerServiceUnitTests {
 
         CustomerDTO customer = new CustomerDTO("Tiago", phone, "12345678901");
 
-        doReturn(false).when(customerRepository).existsByCpf(any());
-
         CustomerInvalidPhoneException exception = assertThrows(CustomerInvalidPhoneException.class,
                 () -> customerService.createCustomer(customer));
 
-        verify(customerRepository, times(0)).save(any());
-        verify(customerRepository, times(0)).existsByCpf(any());
+        verify(customerRepository, times(0)).saveAndFlush(any());
 
         assertNotNull(exception);
         assertEquals("O telefone deve conter apenas números", exception.getMessage());
@@ -62,13 +65,10 @@ class CustomerServiceUnitTests {
 
         CustomerDTO customer = new CustomerDTO("Tiago", "1234567843", cpf);
 
-        doReturn(false).when(customerRepository).existsByCpf(any());
-
         CustomerInvalidCpfException exception = assertThrows((CustomerInvalidCpfException.class),
                 () -> customerService.createCustomer(customer));
 
-        verify(customerRepository, times(0)).save(any());
-        verify(customerRepository, times(0)).existsByCpf(any());
+        verify(customerRepository, times(0)).saveAndFlush(any());
 
         assertNotNull(exception);
         assertEquals("O CPF deve conter apenas números", exception.getMessage());
@@ -80,13 +80,14 @@ class CustomerServiceUnitTests {
 
         CustomerDTO customer = new CustomerDTO("Tiago", "1234567843", "85777777777");
 
-        doReturn(true).when(customerRepository).existsByCpf(any());
+        doThrow(new DataIntegrityViolationException("duplicate cpf",
+                new ConstraintViolationException("duplicate cpf", new SQLException(), CustomerModel.CPF_CONSTRAINT)))
+                .when(customerRepository).saveAndFlush(any());
 
         CustomerConflictException exception = assertThrows(CustomerConflictException.class,
                 () -> customerService.createCustomer(customer));
 
-        verify(customerRepository, times(0)).save(any());
-        verify(customerRepository, times(1)).existsByCpf(any());
+        verify(customerRepository, times(1)).saveAndFlush(any());
         assertNotNull(exception);
         assertEquals("A customer with this cpf already exists", exception.getMessage());
 
@@ -96,15 +97,12 @@ class CustomerServiceUnitTests {
     void givenCustomer_whenCreatingUser_thenCreatesUser() {
         CustomerDTO customer = new CustomerDTO("Tiago", "1234567843", "85777777777");
 
-        when(customerRepository.existsByCpf(any())).thenReturn(false);
-
         CustomerModel savedCustomer = new CustomerModel(1L, "Tiago", "1234567843", "85777777777");
-        when(customerRepository.save(any())).thenReturn(savedCustomer);
+        when(customerRepository.saveAndFlush(any())).thenReturn(savedCustomer);
 
         CustomerModel result = customerService.createCustomer(customer);
 
-        verify(customerRepository, times(1)).existsByCpf("85777777777");
-        verify(customerRepository, times(1)).save(any());
+        verify(customerRepository, times(1)).saveAndFlush(any());
 
         assertNotNull(result);
         assertEquals("Tiago", result.getName());
@@ -116,20 +114,20 @@ class CustomerServiceUnitTests {
 
     @Test
     void givenCustomers_whenGettingAll_thenReturnListOfCustomer() {
-        CustomerModel savedCustomer1 = new CustomerModel(1L, "Tiago", "1234567843", "85777777777");
-        CustomerModel savedCustomer2 = new CustomerModel(2L, "Carlos", "1234567890", "09876543219");
-        List<CustomerModel> customers = List.of(savedCustomer1, savedCustomer2);
+        CustomerResponseDTO savedCustomer1 = new CustomerResponseDTO(1L, "Tiago", "1234567843", "85777777777");
+        CustomerResponseDTO savedCustomer2 = new CustomerResponseDTO(2L, "Carlos", "1234567890", "09876543219");
+        List<CustomerResponseDTO> customers = List.of(savedCustomer1, savedCustomer2);
 
-        when(customerRepository.findAll()).thenReturn(customers);
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101))).thenReturn(customers);
 
-        List<CustomerModel> result = customerService.getCustomers();
+        CursorPageDTO<CustomerResponseDTO> result = customerService.getCustomers(0L, 100);
 
-        verify(customerRepository, times(1)).findAll();
+        verify(customerRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101));
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Tiago", result.get(0).getName());
-        assertEquals("Carlos", result.get(1).getName());
+        assertEquals(2, result.items().size());
+        assertEquals("Tiago", result.items().get(0).name());
+        assertEquals("Carlos", result.items().get(1).name());
     }
 
  
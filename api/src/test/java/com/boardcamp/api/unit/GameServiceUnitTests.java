@@ -2,24 +2,36 @@ package com.boardcamp.api.unit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import com.boardcamp.api.dtos.CursorPageDTO;
 import com.boardcamp.api.dtos.GameDTO;
+import com.boardcamp.api.dtos.GameResponseDTO;
 import com.boardcamp.api.exceptions.game_exceptions.*;
 import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.GameStockSlotModel;
 import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.GameStockSlotRepository;
+import com.boardcamp.api.services.GameCatalogCache;
+import com.boardcamp.api.services.GameNameIndex;
 import com.boardcamp.api.services.GameService;
 
 @SpringBootTest
@@ -31,38 +43,64 @@ class GameServiceUnitTests {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private GameStockSlotRepository gameStockSlotRepository;
+
+    @Mock
+    private GameCatalogCache gameCatalogCache;
+
+    @Mock
+    private GameNameIndex gameNameIndex;
+
 
     @Test
     void whenGetGamesthenShowGames() {
-        GameModel game1 = new GameModel(1L, "jogo 1", "imagem", 3, 3000);
-        GameModel game2 = new GameModel(2L, "jogo 2", "imagem", 3, 3000);
-        List<GameModel> games = List.of(game1, game2);
+        GameResponseDTO game1 = new GameResponseDTO(1L, "jogo 1", "imagem", 3, 3000);
+        GameResponseDTO game2 = new GameResponseDTO(2L, "jogo 2", "imagem", 3, 3000);
+        List<GameResponseDTO> games = List.of(game1, game2);
 
-        when(gameRepository.findAll()).thenReturn(games);
+        when(gameRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).thenReturn(games);
 
-        List<GameModel> result = gameService.getGames();
+        CursorPageDTO<GameResponseDTO> result = gameService.getGames(0L, 10);
 
-        verify(gameRepository, times(1)).findAll();
+        verify(gameRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11));
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("jogo 1", result.get(0).getName());
-        assertEquals("jogo 2", result.get(1).getName());
+        assertEquals(2, result.items().size());
+        assertEquals("jogo 1", result.items().get(0).name());
+        assertEquals("jogo 2", result.items().get(1).name());
+        assertNull(result.nextCursor());
 
     }
 
  
 
+    @Test
+    void givenMoreGamesThanLimit_whenGetGames_thenReturnsNextCursor() {
+        GameResponseDTO game1 = new GameResponseDTO(1L, "jogo 1", "imagem", 3, 3000);
+        GameResponseDTO game2 = new GameResponseDTO(2L, "jogo 2", "imagem", 3, 3000);
+        GameResponseDTO game3 = new GameResponseDTO(3L, "jogo 3", "imagem", 3, 3000);
+
+        when(gameRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(List.of(game1, game2, game3));
+
+        CursorPageDTO<GameResponseDTO> result = gameService.getGames(0L, 2);
+
+        assertEquals(List.of(game1, game2), result.items());
+        assertEquals(2L, result.nextCursor());
+    }
+
     @Test
     void givenRepeatedName_whenCreatingGame_thenThrowsError() {
         GameDTO game = new GameDTO("jogo", "imagem", 3, 3000);
 
-        doReturn(true).when(gameRepository).existsByName(any());
+        doThrow(new DataIntegrityViolationException("duplicate name",
+                new ConstraintViolationException("duplicate name", new SQLException(), GameModel.NAME_CONSTRAINT)))
+                .when(gameRepository).saveAndFlush(any());
 
         GameNameConflictException exception = assertThrows(GameNameConflictException.class,
                 () -> gameService.createGame(game));
 
-        verify(gameRepository, times(0)).save(any());
-        verify(gameRepository, times(1)).existsByName(any());
+        verify(gameRepository, times(1)).saveAndFlush(any());
+        verify(gameCatalogCache, times(0)).invalidate();
         assertNotNull(exception);
         assertEquals("A game with this name already exists", exception.getMessage());
 
@@ -72,21 +110,37 @@ class GameServiceUnitTests {
     void givenGame_whenCreatingGame_thenCreateGame() {
         GameDTO game = new GameDTO("jogo", "imagem", 3, 3000);
 
-        when(gameRepository.existsByName("jogo")).thenReturn(false);
-
         GameModel savedGame = new GameModel(1L, "jogo", "imagem", 3, 3000);
-        when(gameRepository.save(any())).thenReturn(savedGame);
+        when(gameRepository.saveAndFlush(any())).thenReturn(savedGame);
 
         GameModel result = gameService.createGame(game);
 
-        verify(gameRepository, times(1)).existsByName("jogo");
-        verify(gameRepository, times(1)).save(any());
+        verify(gameRepository, times(1)).saveAndFlush(any());
 
         assertNotNull(result);
         assertEquals("jogo", result.getName());
         assertEquals("imagem", result.getImage());
         assertEquals(3, result.getStockTotal());
         assertEquals(3000, result.getPricePerDay());
+        verify(gameStockSlotRepository, times(0)).saveAll(any());
+        verify(gameCatalogCache, times(1)).invalidate();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenShardedGame_whenCreatingGame_thenSplitsStockAcrossSlots() {
+        GameDTO game = new GameDTO("jogo", "imagem", 10, 3000, 4);
+
+        GameModel savedGame = new GameModel(1L, "jogo", "imagem", 10, 3000, 4, null);
+        when(gameRepository.saveAndFlush(any())).thenReturn(savedGame);
+
+        GameModel result = gameService.createGame(game);
+
+        ArgumentCaptor<List<GameStockSlotModel>> slots = ArgumentCaptor.forClass(List.class);
+        verify(gameStockSlotRepository, times(1)).saveAll(slots.capture());
+
+        assertEquals(savedGame, result);
+        assertEquals(List.of(3, 3, 2, 2), slots.getValue().stream().map(GameStockSlotModel::getStock).toList());
     }
 
 }
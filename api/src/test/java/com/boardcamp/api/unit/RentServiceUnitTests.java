@@ -4,14 +4,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -19,6 +22,8 @@ import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import com.boardcamp.api.dtos.RentDTO;
+import com.boardcamp.api.dtos.RentReturnResultDTO;
+import com.boardcamp.api.dtos.RentReturnResultDTO.Outcome;
 import com.boardcamp.api.exceptions.customer_exceptions.CustomerNotFoundException;
 import com.boardcamp.api.exceptions.game_exceptions.GameNotFoundException;
 import com.boardcamp.api.exceptions.game_exceptions.GameStockException;
@@ -26,10 +31,16 @@ import com.boardcamp.api.exceptions.rent_exceptions.RentClosedException;
 import com.boardcamp.api.exceptions.rent_exceptions.RentNotFoundException;
 import com.boardcamp.api.models.CustomerModel;
 import com.boardcamp.api.models.GameModel;
+import com.boardcamp.api.models.GameSummaryModel;
 import com.boardcamp.api.models.RentModel;
 import com.boardcamp.api.repositories.CustomerRepository;
+import com.boardcamp.api.repositories.GameDailyRevenueRepository;
 import com.boardcamp.api.repositories.GameRepository;
+import com.boardcamp.api.repositories.GameStockSlotRepository;
+import com.boardcamp.api.repositories.GameSummaryRepository;
 import com.boardcamp.api.repositories.RentRepository;
+import com.boardcamp.api.repositories.RentRepository.ReturnedRent;
+import com.boardcamp.api.services.GameCatalogCache;
 import com.boardcamp.api.services.RentService;
 
 @SpringBootTest
@@ -47,20 +58,35 @@ class RentServiceUnitTests {
     @Mock
     private RentRepository rentRepository;
 
+    @Mock
+    private GameStockSlotRepository gameStockSlotRepository;
+
+    @Mock
+    private GameSummaryRepository gameSummaryRepository;
+
+    @Mock
+    private GameCatalogCache gameCatalogCache;
+
+    @Mock
+    private GameDailyRevenueRepository gameDailyRevenueRepository;
+
   
 
     @Test
     void givenGameIdThatDoesNotExists_whenCreatingRental_thenThrowsError() {
 
         RentDTO rent = new RentDTO(1L, 1L, 5);
+        CustomerModel customerModel = new CustomerModel(1L, "cliente", "1234567891", "09876442111");
 
-        doReturn(Optional.empty()).when(gameRepository).findById(rent.getGameId());
+        doReturn(Optional.of(customerModel)).when(customerRepository).findById(rent.getCustomerId());
+        doReturn(Optional.empty()).when(gameSummaryRepository).findById(rent.getGameId());
 
         GameNotFoundException exception = assertThrows(GameNotFoundException.class,
                 () -> rentService.createRental(rent));
 
-        verify(gameRepository, times(0)).save(any());
-        verify(gameRepository, times(1)).findById(rent.getGameId());
+        verify(rentRepository, times(0)).save(any());
+        verify(gameSummaryRepository, times(1)).findById(rent.getGameId());
+        verify(gameRepository, times(0)).decrementStock(any());
         assertNotNull(exception);
         assertEquals("a game with this id does not exist", exception.getMessage());
 
@@ -70,18 +96,14 @@ class RentServiceUnitTests {
     void givenCustomerIdThatDoesNotExists_whenCreatingRental_thenThrowsError() {
 
         RentDTO rent = new RentDTO(1L, 1L, 5);
-        GameModel gameModel = new GameModel(1L, "jogo", "imagem", 3, 3000);
-        CustomerModel customerModel = new CustomerModel(1L, "cliente", "1234567891", "09876442111");
-
-        doReturn(Optional.of(gameModel)).when(gameRepository).findById(rent.getGameId());
 
         doReturn(Optional.empty()).when(customerRepository).findById(rent.getCustomerId());
 
         CustomerNotFoundException exception = assertThrows(CustomerNotFoundException.class,
                 () -> rentService.createRental(rent));
 
-        verify(gameRepository, times(0)).save(any());
-        verify(gameRepository, times(1)).findById(rent.getGameId());
+        verify(rentRepository, times(0)).save(any());
+        verify(gameRepository, times(0)).decrementStock(any());
         verify(customerRepository, times(1)).findById(rent.getCustomerId());
         assertNotNull(exception);
         assertEquals("a customer with this id does not exist", exception.getMessage());
@@ -92,17 +114,18 @@ class RentServiceUnitTests {
     void givenGameThatIsOutOfStock_whenCreatingRental_thenThrowsError() {
 
         RentDTO rent = new RentDTO(1L, 1L, 5);
-        GameModel gameModel = new GameModel(1L, "jogo", "imagem", 0, 3000);
         CustomerModel customerModel = new CustomerModel(1L, "cliente", "1234567891", "09876442111");
 
-        doReturn(Optional.of(gameModel)).when(gameRepository).findById(rent.getGameId());
         doReturn(Optional.of(customerModel)).when(customerRepository).findById(rent.getCustomerId());
+        doReturn(Optional.of(new GameSummaryModel(1L, "jogo", 3000, null))).when(gameSummaryRepository).findById(1L);
+        doReturn(0).when(gameRepository).decrementStock(rent.getGameId());
 
         GameStockException exception = assertThrows(GameStockException.class,
                 () -> rentService.createRental(rent));
 
-        verify(gameRepository, times(0)).save(any());
-        verify(gameRepository, times(1)).findById(rent.getGameId());
+        verify(rentRepository, times(0)).save(any());
+        verify(gameRepository, times(1)).decrementStock(rent.getGameId());
+        verify(gameCatalogCache, times(0)).invalidate(any());
         verify(customerRepository, times(1)).findById(rent.getCustomerId());
         assertNotNull(exception);
         assertEquals("this game has no stock to rent", exception.getMessage());
@@ -113,18 +136,13 @@ class RentServiceUnitTests {
     void givenGameAndCustomer_whenCreatingRental_thenCreatesRentalSuccessfully() {
 
         RentDTO rent = new RentDTO(1L, 1L, 5); // 5 dias
-        GameModel gameModel = new GameModel(1L, "jogo", "imagem", 3, 3000); // estoque = 3, preço = 3000
+        GameSummaryModel game = new GameSummaryModel(1L, "jogo", 3000, null); // preço = 3000
         CustomerModel customerModel = new CustomerModel(1L, "cliente", "1234567891", "09876442111");
 
-        doReturn(Optional.of(gameModel)).when(gameRepository).findById(1L);
         doReturn(Optional.of(customerModel)).when(customerRepository).findById(1L);
-
-        RentModel savedRent = new RentModel(rent);
-        savedRent.setId(1L);
-        savedRent.setGame(gameModel);
-        savedRent.setCustomer(customerModel);
-        savedRent.setOriginalPrice(5 * 3000);
-        doReturn(savedRent).when(rentRepository).save(any());
+        doReturn(1).when(gameRepository).decrementStock(1L);
+        doReturn(Optional.of(game)).when(gameSummaryRepository).findById(1L);
+        when(rentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         RentModel result = rentService.createRental(rent);
 
@@ -133,24 +151,45 @@ class RentServiceUnitTests {
         assertEquals("cliente", result.getCustomer().getName());
         assertEquals("jogo", result.getGame().getName());
 
-        assertEquals(2, gameModel.getStockTotal());
-
-        verify(gameRepository, times(1)).findById(1L);
+        verify(gameRepository, times(1)).decrementStock(1L);
+        verify(gameRepository, times(0)).save(any());
+        verify(gameRepository, times(0)).findById(any());
+        verify(gameCatalogCache, times(1)).invalidate(List.of(1L));
         verify(customerRepository, times(1)).findById(1L);
         verify(rentRepository, times(1)).save(any());
     }
 
 
+    @Test
+    void givenShardedGame_whenCreatingRental_thenReservesStockFromSlot() {
+
+        RentDTO rent = new RentDTO(1L, 1L, 5);
+        CustomerModel customerModel = new CustomerModel(1L, "cliente", "1234567891", "09876442111");
+
+        doReturn(Optional.of(customerModel)).when(customerRepository).findById(1L);
+        doReturn(Optional.of(new GameSummaryModel(1L, "jogo", 3000, 4))).when(gameSummaryRepository).findById(1L);
+        doReturn(1).when(gameStockSlotRepository).decrementRandomUnlockedSlot(1L);
+        when(rentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RentModel result = rentService.createRental(rent);
+
+        assertEquals(15000, result.getOriginalPrice());
+        verify(gameStockSlotRepository, times(1)).decrementRandomUnlockedSlot(1L);
+        verify(gameStockSlotRepository, times(0)).decrementAnySlot(any());
+        verify(gameRepository, times(0)).decrementStock(any());
+    }
+
     @Test
     void givenRentalThatNotExists_whenClosingRental_thenThrowsError() {
-        
 
-        doReturn(Optional.empty()).when(rentRepository).findById(any());
+        doReturn(List.of()).when(rentRepository).returnOpenRentals(any(), any());
+        doReturn(false).when(rentRepository).existsById(1L);
 
         RentNotFoundException exception = assertThrows(RentNotFoundException.class,
-                () -> rentService.closeRental(any()));
+                () -> rentService.closeRental(1L));
 
-        verify(rentRepository, times(1)).findById(any());
+        verify(rentRepository, times(1)).existsById(1L);
+        verify(gameRepository, times(0)).restock(any(), any());
         assertNotNull(exception);
         assertEquals("a rent with this id does not exist", exception.getMessage());
 
@@ -158,50 +197,68 @@ class RentServiceUnitTests {
 
     @Test
     void givenRentalThatIsAlreadyClosed_whenClosingRental_thenThrowsError() {
-        GameModel gameModel = new GameModel(1L, "jogo", "imagem", 3, 3000); // estoque = 3, preço = 3000
-        CustomerModel customerModel = new CustomerModel(1L, "cliente", "1234567891", "09876442111");
-        RentModel rent = new RentModel(1L, customerModel, gameModel, LocalDate.now(), 3, LocalDate.now(), 3000, 0);
 
-        doReturn(Optional.of(rent)).when(rentRepository).findById(any());
+        doReturn(List.of()).when(rentRepository).returnOpenRentals(any(), any());
+        doReturn(true).when(rentRepository).existsById(1L);
 
         RentClosedException exception = assertThrows(RentClosedException.class,
-                () -> rentService.closeRental(any()));
+                () -> rentService.closeRental(1L));
 
-        verify(rentRepository, times(1)).findById(any());
+        verify(rentRepository, times(1)).existsById(1L);
+        verify(gameRepository, times(0)).restock(any(), any());
+        verify(gameDailyRevenueRepository, times(0)).addRevenue(any(), any(), anyLong());
         assertNotNull(exception);
         assertEquals("rent already closed", exception.getMessage());
     }
 
     @Test
-    void givenRentalWithDelay_whenClosingRental_thenCalculateCorrectDelayFee() {
+    void givenRentalWithDelay_whenClosingRental_thenRestocksAndBooksTheFee() {
 
         LocalDate rentDate = LocalDate.now().minusDays(5);
-        int daysRented = 3;
-        LocalDate returnDate = LocalDate.now();
-        int pricePerDay = 1500;
-
-        long daysLate = ChronoUnit.DAYS.between(rentDate.plusDays(daysRented), returnDate);
-        int expectedFee = (int) daysLate * pricePerDay;
+        int expectedFee = 2 * 1500;
 
-        GameModel gameModel = new GameModel(1L, "jogo", "imagem", 3, pricePerDay);
+        GameModel gameModel = new GameModel(1L, "jogo", "imagem", 3, 1500);
         CustomerModel customerModel = new CustomerModel(1L, "cliente", "1234567891", "09876442111");
+        RentModel closedRent = new RentModel(1L, customerModel, gameModel, rentDate, 3, null, LocalDate.now(), 4500, expectedFee);
 
-        RentModel rent = new RentModel(1L, customerModel, gameModel, rentDate, daysRented, null, 0, 0);
-
-        when(rentRepository.findById(1L)).thenReturn(Optional.of(rent));
-
-        RentModel savedRent = new RentModel(1L, customerModel, gameModel, rentDate, daysRented, returnDate, 0, expectedFee);
-        when(rentRepository.save(any())).thenReturn(savedRent);
+        when(rentRepository.returnOpenRentals(new Long[] { 1L }, LocalDate.now()))
+                .thenReturn(List.of(new ReturnedRent(1L, 1L, false, expectedFee)));
+        when(rentRepository.findById(1L)).thenReturn(Optional.of(closedRent));
 
         RentModel result = rentService.closeRental(1L);
 
         assertNotNull(result.getReturnDate());
         assertEquals(expectedFee, result.getDelayFee());
-        assertEquals(2, daysLate);
 
-        verify(rentRepository, times(1)).findById(1L);
-        verify(rentRepository, times(1)).save(any());
+        verify(gameRepository, times(1)).restock(new Long[] { 1L }, new Integer[] { 1 });
+        verify(gameStockSlotRepository, times(0)).restockRandomSlots(any(), any());
+        verify(gameDailyRevenueRepository, times(1)).addRevenue(1L, LocalDate.now(), expectedFee);
+        verify(rentRepository, times(0)).save(any());
     }
-    
+
+    @Test
+    void givenMixedIds_whenReturningRentals_thenRestocksAndReportsEachId() {
+
+        when(rentRepository.returnOpenRentals(any(), any())).thenReturn(List.of(
+                new ReturnedRent(3L, 20L, false, 0), new ReturnedRent(1L, 10L, false, 3000),
+                new ReturnedRent(4L, 10L, false, 1500), new ReturnedRent(6L, 30L, true, 0)));
+        when(rentRepository.findExistingIds(any())).thenReturn(List.of(1L, 2L, 3L, 4L, 6L));
+
+        List<RentReturnResultDTO> results = rentService.returnRentals(List.of(1L, 2L, 3L, 1L, 4L, 5L, 6L));
+
+        assertEquals(List.of(
+                new RentReturnResultDTO(1L, Outcome.RETURNED, 3000),
+                new RentReturnResultDTO(2L, Outcome.ALREADY_RETURNED, null),
+                new RentReturnResultDTO(3L, Outcome.RETURNED, 0),
+                new RentReturnResultDTO(4L, Outcome.RETURNED, 1500),
+                new RentReturnResultDTO(5L, Outcome.NOT_FOUND, null),
+                new RentReturnResultDTO(6L, Outcome.RETURNED, 0)), results);
+
+        verify(gameRepository, times(1)).restock(new Long[] { 10L, 20L }, new Integer[] { 2, 1 });
+        verify(gameStockSlotRepository, times(1)).restockRandomSlots(new Long[] { 30L }, new Integer[] { 1 });
+        verify(gameDailyRevenueRepository, times(1)).addRevenues(eq(new Long[] { 10L }), any(), eq(new Long[] { 4500L }));
+        verify(gameCatalogCache, times(1)).invalidate(Set.of(10L, 20L, 30L));
+    }
+
 
 }